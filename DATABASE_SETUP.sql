@@ -1,2 +1,7 @@
 DROP DATABASE IF EXISTS academictracker;
 CREATE DATABASE academictracker;
+
+-- Tables and indexes are created by the versioned Flyway migrations in
+-- src/main/resources/db/migration, applied automatically on application startup.
+-- A database whose tables were created by the old ddl-auto=update setting is
+-- baselined at V1 on first start, and the later migrations are applied on top.
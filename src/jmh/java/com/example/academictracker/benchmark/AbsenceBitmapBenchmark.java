@@ -0,0 +1,58 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.analytics.CourseAbsences;
+import org.openjdk.jmh.annotations.*;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Absence bitmaps of one large course: 500 students marked on every school day for four years,
+// each absent about one day in ten.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AbsenceBitmapBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2022, 1, 3);
+
+    private CourseAbsences absences;
+    private List<LocalDate> week;
+    private List<LocalDate> term;
+
+    @Setup
+    public void setUp() {
+        absences = new CourseAbsences();
+        List<LocalDate> days = new ArrayList<>();
+        Random random = new Random(1);
+        for (int day = 0; day < 4 * 52 * 5; day++) {
+            LocalDate date = START.plusDays(day / 5 * 7 + day % 5);
+            days.add(date);
+            for (int student = 1; student <= 500; student++) {
+                absences.record(date, student, random.nextInt(10) != 0);
+            }
+        }
+        week = days.subList(500, 505);
+        term = days.subList(500, 560);
+    }
+
+    @Benchmark
+    public RoaringBitmap absentAllWeek() {
+        return absences.absentOnAll(week);
+    }
+
+    @Benchmark
+    public RoaringBitmap absentAnyDayOfTerm() {
+        return absences.absentOnAny(term);
+    }
+
+    @Benchmark
+    public RoaringBitmap threeDayStreaksOverFourYears() {
+        return absences.absentStreaks(3, LocalDate.MIN, LocalDate.MAX);
+    }
+}
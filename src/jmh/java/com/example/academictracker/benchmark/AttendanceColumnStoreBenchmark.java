@@ -0,0 +1,67 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.analytics.AttendanceColumnStore;
+import com.example.academictracker.dto.AbsenceStreakDTO;
+import com.example.academictracker.dto.DailyAttendanceRateDTO;
+import com.example.academictracker.dto.WeekdayAbsenceDTO;
+import com.example.academictracker.service.AttendanceRecordedEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Full scans of the attendance column store: 2000 students in 200 courses (10 sections of 20),
+// marked on every school day for about ten years. Divide rows by the score for rows/ms.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AttendanceColumnStoreBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 2);
+
+    @Param({"5000000"})
+    public int rows;
+
+    private AttendanceColumnStore store;
+    private List<Long> section;
+
+    @Setup
+    public void setUp() {
+        store = new AttendanceColumnStore(rows);
+        int perCourse = 10;
+        int perDay = 200 * perCourse;
+        for (int day = 0; day * perDay < rows; day++) {
+            LocalDate date = START.plusDays(day / 5 * 7 + day % 5);
+            for (long course = 1; course <= 200; course++) {
+                Map<Long, Boolean> marks = new HashMap<>();
+                for (long student = 0; student < perCourse; student++) {
+                    long id = course * perCourse + student;
+                    marks.put(id, (id * 31 + day) % 11 != 0);
+                }
+                store.attendanceRecorded(new AttendanceRecordedEvent(course, date, marks));
+            }
+        }
+        section = LongStream.rangeClosed(1, 20).boxed().toList();
+    }
+
+    @Benchmark
+    public List<DailyAttendanceRateDTO> sectionDailyRatesForAYear() {
+        return store.dailyRates(section, START, START.plusDays(365));
+    }
+
+    @Benchmark
+    public List<WeekdayAbsenceDTO> schoolWeekdayAbsences() {
+        return store.weekdayAbsences(null, null);
+    }
+
+    @Benchmark
+    public List<AbsenceStreakDTO> courseAbsenceStreaks() {
+        return store.absenceStreaks(42L);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.security.CustomUserDetailsService;
+import com.example.academictracker.security.JwtAuthenticationFilter;
+import com.example.academictracker.security.JwtUtil;
+import com.example.academictracker.security.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through JwtAuthenticationFilter, token in the Authorization header
+// or in the jwt cookie. The user lookup is stubbed, so this measures the filter itself:
+// token extraction, verification (cached or not) and building the security context.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET =
+            "yourSecretKey123456789yourSecretKey123456789yourSecretKey123456789yourSecretKey123456789";
+
+    @Param({"true", "false"})
+    public boolean verifiedTokenCache;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 86400000, verifiedTokenCache ? 10000 : 0);
+        UserDetails teacher = new User("teacher@example.com", "",
+                List.of(new SimpleGrantedAuthority("ROLE_TEACHER")));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService() {
+            @Override
+            public UserDetails loadUserByUsername(String email) {
+                return teacher;
+            }
+        };
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(10000, 300, new SimpleMeterRegistry()));
+        filter.setMeterRegistry(new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("teacher@example.com");
+    }
+
+    @Benchmark
+    public Object headerToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/marks/student/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return authenticate(request);
+    }
+
+    @Benchmark
+    public Object cookieToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/marks/student/1");
+        request.setCookies(new Cookie("jwt", token));
+        return authenticate(request);
+    }
+
+    private Object authenticate(MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.model.Attendance;
+import com.example.academictracker.service.AttendanceService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loading the 10k attendance entities of one course (ServiceReadBenchmark data) with student, course
+// and teacher fetched. A read-write transaction snapshots every entity and dirty-checks them all at
+// commit; a read-only one does neither. Run with -prof gc to compare gc.alloc.rate.norm per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReadOnlyTransactionBenchmark {
+
+    private static final String QUERY = "select a from Attendance a join fetch a.student "
+            + "join fetch a.course c left join fetch c.teacher where c.id = :courseId";
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private AttendanceService attendanceService;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceReadBenchmark.boot("read-only-benchmark");
+        ServiceReadBenchmark.seed(context.getBean(JdbcTemplate.class));
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        attendanceService = context.getBean(AttendanceService.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // How the get* methods ran before: managed entities, snapshots and a flush at commit
+    @Benchmark
+    public int readWriteTransaction() {
+        return readWrite.execute(status -> load().size());
+    }
+
+    @Benchmark
+    public int readOnlyTransaction() {
+        return readOnly.execute(status -> load().size());
+    }
+
+    // The service path: @Transactional(readOnly = true) around the @ReadOnlyQuery repository method
+    @Benchmark
+    public List<Attendance> readOnlyService() {
+        return attendanceService.getAttendanceByCourseId(1L);
+    }
+
+    private List<Attendance> load() {
+        return entityManager.createQuery(QUERY, Attendance.class).setParameter("courseId", 1L).getResultList();
+    }
+}
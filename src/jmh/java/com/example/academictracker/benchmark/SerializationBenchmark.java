@@ -0,0 +1,96 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the list responses: the Marks/Attendance entities with their nested student
+// and course, against the flat row DTOs the list endpoints return now. The mapper is configured
+// like Spring Boot's (JavaTimeModule, ISO dates).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Marks> marks;
+    private List<Attendance> attendances;
+    private List<MarksRowDTO> marksRows;
+    private List<AttendanceRowDTO> attendanceRows;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User teacher = user(1L, "Teacher", Role.TEACHER);
+        Course course = new Course("Data Structures", "A", teacher);
+        course.setId(1L);
+        List<User> students = new ArrayList<>();
+        for (long id = 2; id < 102; id++) {
+            students.add(user(id, "Student " + id, Role.STUDENT));
+        }
+
+        marks = new ArrayList<>(size);
+        attendances = new ArrayList<>(size);
+        marksRows = new ArrayList<>(size);
+        attendanceRows = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        for (int i = 0; i < size; i++) {
+            User student = students.get(i % students.size());
+            LocalDate date = start.plusDays(i / students.size());
+            double score = 40 + (i * 7 % 61);
+            boolean present = i % 9 != 0;
+
+            Marks mark = new Marks(student, course, score);
+            mark.setId((long) i + 1);
+            marks.add(mark);
+            Attendance attendance = new Attendance(student, course, date, present, present ? null : "Absent");
+            attendance.setId((long) i + 1);
+            attendances.add(attendance);
+
+            marksRows.add(new MarksRowDTO((long) i + 1, student.getId(), student.getName(),
+                    course.getId(), course.getName(), score));
+            attendanceRows.add(new AttendanceRowDTO((long) i + 1, student.getId(), student.getName(),
+                    course.getId(), course.getName(), date, present, present ? null : "Absent"));
+        }
+    }
+
+    @Benchmark
+    public byte[] marksEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(marks);
+    }
+
+    @Benchmark
+    public byte[] marksRows() throws Exception {
+        return objectMapper.writeValueAsBytes(marksRows);
+    }
+
+    @Benchmark
+    public byte[] attendanceEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(attendances);
+    }
+
+    @Benchmark
+    public byte[] attendanceRows() throws Exception {
+        return objectMapper.writeValueAsBytes(attendanceRows);
+    }
+
+    private static User user(Long id, String name, Role role) {
+        User user = new User(name, name.toLowerCase().replace(' ', '.') + "@example.com", "$2a$10$hash", role);
+        user.setId(id);
+        return user;
+    }
+}
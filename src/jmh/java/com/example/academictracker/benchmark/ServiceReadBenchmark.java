@@ -0,0 +1,132 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.AcademictrackerApplication;
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.AttendanceStatsDTO;
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.dto.MarksStatsDTO;
+import com.example.academictracker.model.Marks;
+import com.example.academictracker.service.AttendanceService;
+import com.example.academictracker.service.MarksService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// MarksService/AttendanceService read paths against an embedded H2 database (MySQL mode, schema from
+// the Flyway migrations). One course with 200 students, 5 marks each and 50 days of attendance.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceReadBenchmark {
+
+    private static final int STUDENTS = 200;
+    private static final int MARKS_PER_STUDENT = 5;
+    private static final int DAYS = 50;
+    private static final long COURSE_ID = 1L;
+    private static final long STUDENT_ID = 2L;
+
+    private ConfigurableApplicationContext context;
+    private MarksService marksService;
+    private AttendanceService attendanceService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = boot("service-benchmark");
+        seed(context.getBean(JdbcTemplate.class));
+        marksService = context.getBean(MarksService.class);
+        attendanceService = context.getBean(AttendanceService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MarksRowDTO> marksRowsByCourse() {
+        return marksService.getMarksRowsByCourseId(COURSE_ID);
+    }
+
+    @Benchmark
+    public List<Marks> marksEntitiesByCourse() {
+        return marksService.getMarksByCourseId(COURSE_ID);
+    }
+
+    @Benchmark
+    public List<MarksRowDTO> marksRowsByStudent() {
+        return marksService.getMarksRowsByStudentId(STUDENT_ID);
+    }
+
+    @Benchmark
+    public MarksStatsDTO marksStatsByCourse() {
+        return marksService.getMarksStatsByCourseId(COURSE_ID);
+    }
+
+    @Benchmark
+    public List<AttendanceRowDTO> attendanceRowsByCourse() {
+        return attendanceService.getAttendanceRowsByCourseId(COURSE_ID);
+    }
+
+    @Benchmark
+    public CursorPageDTO<AttendanceRowDTO> attendanceFirstPageByCourse() {
+        return attendanceService.getAttendancePageByCourseId(COURSE_ID, null, 100);
+    }
+
+    @Benchmark
+    public List<AttendanceStatsDTO> attendanceStatsByCourse() {
+        return attendanceService.getAttendanceStatsByCourseId(COURSE_ID);
+    }
+
+    // Boots the application on its own in-memory database
+    static ConfigurableApplicationContext boot(String database) {
+        return SpringApplication.run(AcademictrackerApplication.class,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--security.bcrypt.strength=4",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.academictracker=WARN",
+                "--logging.level.org.springframework.security=WARN");
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password, role) VALUES (1, 'Teacher', 'teacher@example.com', 'x', 'TEACHER')");
+        List<Object[]> students = new ArrayList<>();
+        for (long id = STUDENT_ID; id < STUDENT_ID + STUDENTS; id++) {
+            students.add(new Object[]{id, "Student " + id, "student" + id + "@example.com", "x", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, password, role) VALUES (?, ?, ?, ?, ?)", students);
+        jdbcTemplate.update("INSERT INTO courses (id, name, section, teacher_id) VALUES (?, 'Data Structures', 'A', 1)", COURSE_ID);
+
+        List<Object[]> marks = new ArrayList<>();
+        List<Object[]> attendances = new ArrayList<>();
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        for (long id = STUDENT_ID; id < STUDENT_ID + STUDENTS; id++) {
+            for (int i = 0; i < MARKS_PER_STUDENT; i++) {
+                marks.add(new Object[]{id, COURSE_ID, 40.0 + (id * 7 + i * 13) % 61});
+            }
+            for (int day = 0; day < DAYS; day++) {
+                boolean present = (id + day) % 9 != 0;
+                attendances.add(new Object[]{id, COURSE_ID, Date.valueOf(start.plusDays(day)), present,
+                        present ? null : "Absent"});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO marks (student_id, course_id, score) VALUES (?, ?, ?)", marks);
+        jdbcTemplate.batchUpdate("INSERT INTO attendances (student_id, course_id, date, present, remarks) VALUES (?, ?, ?, ?, ?)",
+                attendances);
+    }
+}
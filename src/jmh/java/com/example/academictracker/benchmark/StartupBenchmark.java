@@ -0,0 +1,58 @@
+package com.example.academictracker.benchmark;
+
+import com.example.academictracker.AcademictrackerApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Boot latency with Hibernate introspecting and updating the schema (ddl-auto=update, the old setting)
+// versus Flyway checking its history table and Hibernate only validating. Both run against an H2
+// stand-in in MySQL mode whose schema already exists, as on a warm production restart.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String DATABASE_URL =
+            "--spring.datasource.url=jdbc:h2:file:./target/startup-benchmark/db;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    @Setup(Level.Trial)
+    public void createSchema() throws Exception {
+        FileSystemUtils.deleteRecursively(Path.of("target", "startup-benchmark"));
+        // First boot migrates the empty database; every measured boot then finds the schema in place
+        start("--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=validate").close();
+    }
+
+    @Benchmark
+    public void beforeDdlAutoUpdate() {
+        start("--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update").close();
+    }
+
+    @Benchmark
+    public void afterFlywayWithValidate() {
+        start("--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=validate").close();
+    }
+
+    private static ConfigurableApplicationContext start(String... mode) {
+        String[] args = new String[mode.length + 9];
+        args[0] = DATABASE_URL;
+        args[1] = "--spring.datasource.username=sa";
+        args[2] = "--spring.datasource.password=";
+        args[3] = "--spring.datasource.driver-class-name=org.h2.Driver";
+        args[4] = "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect";
+        args[5] = "--server.port=0";
+        args[6] = "--logging.level.root=WARN";
+        args[7] = "--logging.level.com.example.academictracker=WARN";
+        // Fixed cost, so BCrypt calibration doesn't add to every measured boot
+        args[8] = "--security.bcrypt.strength=10";
+        System.arraycopy(mode, 0, args, 9, mode.length);
+        return SpringApplication.run(AcademictrackerApplication.class, args);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.academictracker.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load generator for a running instance. Start the app once in the default mode and once
+// with --spring.profiles.active=virtual-threads, run this against each and compare the reports.
+//
+//   ./mvnw -Pjmh test-compile exec:exec -Dbenchmark.main=com.example.academictracker.loadtest.RollCallLoadTest \
+//       -Djmh.args="http://localhost:8080 teacher@example.com password123 <studentId> <courseId> 200 30"
+//
+// Arguments: base URL, teacher email, teacher password, student id, course id, concurrent clients, seconds.
+public class RollCallLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 7) {
+            System.err.println("Usage: RollCallLoadTest <baseUrl> <email> <password> <studentId> <courseId> <clients> <seconds>");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        long studentId = Long.parseLong(args[3]);
+        long courseId = Long.parseLong(args[4]);
+        int clients = Integer.parseInt(args[5]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[6]));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String token = login(client, baseUrl, args[1], args[2]);
+
+        // Each mark lands on its own date so the upsert never contends on one row
+        AtomicInteger dayOffset = new AtomicInteger();
+        LocalDate firstDay = LocalDate.of(2000, 1, 1);
+        Scenario mark = new Scenario("POST /api/attendance/mark", () -> HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/attendance/mark"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"studentId\":" + studentId + ",\"courseId\":" + courseId
+                        + ",\"date\":\"" + firstDay.plusDays(dayOffset.getAndIncrement()) + "\",\"present\":true}"))
+                .build());
+        Scenario marks = new Scenario("GET /api/marks/student/{id}", () -> HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/marks/student/" + studentId))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build());
+
+        for (Scenario scenario : List.of(mark, marks)) {
+            scenario.run(client, clients, duration);
+            scenario.report();
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static final class Scenario {
+        private final String name;
+        private final RequestFactory requests;
+        private final List<long[]> latenciesPerClient = new ArrayList<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private long elapsedNanos;
+
+        Scenario(String name, RequestFactory requests) {
+            this.name = name;
+            this.requests = requests;
+        }
+
+        void run(HttpClient client, int clients, Duration duration) throws InterruptedException {
+            long deadline = System.nanoTime() + duration.toNanos();
+            long start = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    executor.execute(() -> {
+                        LatencyLog log = new LatencyLog();
+                        while (System.nanoTime() < deadline) {
+                            long sent = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(requests.create(),
+                                        HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() >= 400) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            log.add(System.nanoTime() - sent);
+                        }
+                        synchronized (latenciesPerClient) {
+                            latenciesPerClient.add(log.toArray());
+                        }
+                    });
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+        }
+
+        void report() {
+            long[] all = latenciesPerClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (all.length == 0) {
+                System.out.printf("%-30s no completed requests%n", name);
+                return;
+            }
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("%-30s requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                    name, all.length, errors.get(), all.length / seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private static final class LatencyLog {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.academictracker.analytics;
+
+import com.example.academictracker.repository.AttendanceRepository;
+import com.example.academictracker.service.AttendanceRecordedEvent;
+import com.example.academictracker.service.AttendanceRemovedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Per-course absence bitmaps (CourseAbsences), built from AttendanceRepository the first time a course
+// is queried and then kept current from committed marks. Marks committed while a course is loading
+// are held back and applied on top of the loaded rows, so the newest value always wins.
+@Component
+public class AbsenceBitmapIndex {
+
+    private static final class Entry {
+        private final Object loadLock = new Object();
+        private final CourseAbsences absences = new CourseAbsences();
+        private List<Consumer<CourseAbsences>> pending = new ArrayList<>();
+
+        // Caller holds the entry's monitor
+        private void apply(Consumer<CourseAbsences> change) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                change.accept(absences);
+            }
+        }
+    }
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Entry> courses = new ConcurrentHashMap<>();
+
+    public List<Long> absentOnAll(Long courseId, List<LocalDate> dates) {
+        return query(courseId, absences -> absences.absentOnAll(dates));
+    }
+
+    public List<Long> absentOnAny(Long courseId, List<LocalDate> dates) {
+        return query(courseId, absences -> absences.absentOnAny(dates));
+    }
+
+    public List<Long> absentStreaks(Long courseId, int minDays, LocalDate from, LocalDate to) {
+        return query(courseId, absences -> absences.absentStreaks(minDays, from, to));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void attendanceRecorded(AttendanceRecordedEvent event) {
+        Entry entry = courses.get(event.courseId());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.apply(absences -> event.presentByStudentId().forEach((studentId, present) ->
+                    absences.record(event.date(), studentId, present)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void attendanceRemoved(AttendanceRemovedEvent event) {
+        if (event.courseId() != null) {
+            courses.remove(event.courseId());
+        }
+        if (event.studentId() != null) {
+            for (Entry entry : courses.values()) {
+                synchronized (entry) {
+                    entry.apply(absences -> absences.removeStudent(event.studentId()));
+                }
+            }
+        }
+    }
+
+    private List<Long> query(Long courseId, Function<CourseAbsences, RoaringBitmap> question) {
+        Entry entry = loaded(courseId);
+        RoaringBitmap students;
+        synchronized (entry) {
+            students = question.apply(entry.absences);
+        }
+        List<Long> ids = new ArrayList<>(students.getCardinality());
+        students.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private Entry loaded(Long courseId) {
+        // Registered before the load query starts, so every mark committed after the snapshot reaches it
+        Entry entry = courses.computeIfAbsent(courseId, id -> new Entry());
+        synchronized (entry.loadLock) {
+            if (entry.pending == null) {
+                return entry;
+            }
+            // Read-write template: the load must come from the primary, not a possibly lagging replica
+            List<AttendanceRepository.DayMark> marks = transactionTemplate.execute(
+                    status -> attendanceRepository.findDayMarksByCourseId(courseId));
+            synchronized (entry) {
+                for (AttendanceRepository.DayMark mark : marks) {
+                    entry.absences.record(mark.getDate(), mark.getStudentId(), mark.getPresent());
+                }
+                entry.pending.forEach(change -> change.accept(entry.absences));
+                entry.pending = null;
+            }
+        }
+        return entry;
+    }
+}
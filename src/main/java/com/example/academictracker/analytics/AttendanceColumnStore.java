@@ -0,0 +1,401 @@
+package com.example.academictracker.analytics;
+
+import com.example.academictracker.dto.AbsenceStreakDTO;
+import com.example.academictracker.dto.DailyAttendanceRateDTO;
+import com.example.academictracker.dto.WeekdayAbsenceDTO;
+import com.example.academictracker.service.AttendanceRecordedEvent;
+import com.example.academictracker.service.AttendanceRemovedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// Attendance held as off-heap columns for analytics: int student and course ids, the epoch day as an
+// unsigned short (1970-2149) and present/live bitsets, about 10 bytes a row plus an 8-byte hash slot.
+// Rows are never moved: a re-mark flips the present bit, a removal clears the live bit. Queries scan
+// the columns in 64k-row chunks on the common pool under a read lock; writers take the write lock.
+public class AttendanceColumnStore {
+
+    static final String LOAD_SQL = "SELECT a.student_id, a.course_id, a.date, a.present FROM attendances a "
+            + "JOIN courses c ON c.id = a.course_id WHERE c.deleted_at IS NULL";
+
+    private static final int CHUNK = 1 << 16;
+    private static final int MAX_DAYS = 3660;
+    // Day of week (0 = Monday) for every representable epoch day; epoch day 0 was a Thursday
+    private static final byte[] WEEKDAYS = new byte[1 << 16];
+
+    static {
+        for (int day = 0; day < WEEKDAYS.length; day++) {
+            WEEKDAYS[day] = (byte) ((day + 3) % 7);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<A> {
+        void scan(A accumulator, int from, int to);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IntBuffer students;
+    private IntBuffer courses;
+    private ShortBuffer days;
+    private LongBuffer present;
+    private LongBuffer live;
+    // Open addressing on (student, course, day): row + 1 per slot, 0 when empty; kept at most half full
+    private IntBuffer index;
+    private int capacity;
+    private int size;
+    private int liveRows;
+    private long skipped;
+
+    public AttendanceColumnStore(int initialCapacity) {
+        allocate(Math.max(1024, Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1));
+    }
+
+    // Replaces nothing: meant to run once, on an empty store, before the application takes traffic
+    public int load(JdbcTemplate jdbcTemplate, int fetchSize) {
+        lock.writeLock().lock();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOAD_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) rs -> put(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(), rs.getBoolean(4)));
+            return liveRows;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void attendanceRecorded(AttendanceRecordedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.presentByStudentId().forEach((studentId, present) ->
+                    put(studentId, event.courseId(), event.date(), present));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void attendanceRemoved(AttendanceRemovedEvent event) {
+        if ((event.studentId() != null && !fits(event.studentId()))
+                || (event.courseId() != null && !fits(event.courseId()))) {
+            return;
+        }
+        int student = event.studentId() == null ? -1 : event.studentId().intValue();
+        int course = event.courseId() == null ? -1 : event.courseId().intValue();
+        lock.writeLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (bit(live, row) && (student < 0 || students.get(row) == student)
+                        && (course < 0 || courses.get(row) == course)) {
+                    setBit(live, row, false);
+                    liveRows--;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int rows() {
+        return liveRows;
+    }
+
+    // Rows whose ids or date do not fit the columns; they are left out of every query
+    public long skipped() {
+        return skipped;
+    }
+
+    public long offHeapBytes() {
+        return capacity * 10L + capacity / 4 + capacity * 8L;
+    }
+
+    // Present and total marks per day over the given courses, days without marks left out
+    public List<DailyAttendanceRateDTO> dailyRates(Collection<Long> courseIds, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_DAYS + " days");
+        }
+        int[] wanted = courseIds.stream().filter(AttendanceColumnStore::fits)
+                .mapToInt(Long::intValue).sorted().distinct().toArray();
+        long first = from.toEpochDay();
+        int span = (int) (to.toEpochDay() - first) + 1;
+        long[] counts = scan(() -> new long[span * 2], (acc, fromRow, toRow) -> {
+            IntBuffer courses = this.courses;
+            ShortBuffer days = this.days;
+            for (int word = fromRow >>> 6; word << 6 < toRow; word++) {
+                long liveWord = live.get(word);
+                long presentWord = present.get(word);
+                for (; liveWord != 0; liveWord &= liveWord - 1) {
+                    int bit = Long.numberOfTrailingZeros(liveWord);
+                    int row = word << 6 | bit;
+                    int day = (int) (Short.toUnsignedInt(days.get(row)) - first);
+                    if (day >= 0 && day < span && Arrays.binarySearch(wanted, courses.get(row)) >= 0) {
+                        acc[day * 2 + 1]++;
+                        acc[day * 2] += presentWord >>> bit & 1;
+                    }
+                }
+            }
+        }, AttendanceColumnStore::sum);
+        List<DailyAttendanceRateDTO> rates = new ArrayList<>();
+        for (int day = 0; day < span; day++) {
+            if (counts[day * 2 + 1] > 0) {
+                rates.add(new DailyAttendanceRateDTO(from.plusDays(day), counts[day * 2], counts[day * 2 + 1]));
+            }
+        }
+        return rates;
+    }
+
+    // Absences and marks per day of week; a null student or course means all of them
+    public List<WeekdayAbsenceDTO> weekdayAbsences(Long studentId, Long courseId) {
+        if ((studentId != null && !fits(studentId)) || (courseId != null && !fits(courseId))) {
+            return List.of();
+        }
+        int student = studentId == null ? -1 : studentId.intValue();
+        int course = courseId == null ? -1 : courseId.intValue();
+        long[] counts = scan(() -> new long[14], (acc, fromRow, toRow) -> {
+            IntBuffer students = this.students;
+            IntBuffer courses = this.courses;
+            ShortBuffer days = this.days;
+            for (int word = fromRow >>> 6; word << 6 < toRow; word++) {
+                long liveWord = live.get(word);
+                long absentWord = ~present.get(word);
+                for (; liveWord != 0; liveWord &= liveWord - 1) {
+                    int bit = Long.numberOfTrailingZeros(liveWord);
+                    int row = word << 6 | bit;
+                    if ((student < 0 || students.get(row) == student) && (course < 0 || courses.get(row) == course)) {
+                        int weekday = WEEKDAYS[Short.toUnsignedInt(days.get(row))];
+                        acc[weekday * 2 + 1]++;
+                        acc[weekday * 2] += absentWord >>> bit & 1;
+                    }
+                }
+            }
+        }, AttendanceColumnStore::sum);
+        List<WeekdayAbsenceDTO> result = new ArrayList<>(7);
+        for (int weekday = 0; weekday < 7; weekday++) {
+            result.add(new WeekdayAbsenceDTO(DayOfWeek.of(weekday + 1), counts[weekday * 2], counts[weekday * 2 + 1]));
+        }
+        return result;
+    }
+
+    // Per student of the course: marks, absences, and the longest and current runs of absent class days
+    public List<AbsenceStreakDTO> absenceStreaks(Long courseId) {
+        if (!fits(courseId)) {
+            return List.of();
+        }
+        int course = courseId.intValue();
+        // student << 17 | day << 1 | absent, so sorting orders by student, then day
+        LongList marks = scan(LongList::new, (acc, fromRow, toRow) -> {
+            IntBuffer students = this.students;
+            IntBuffer courses = this.courses;
+            ShortBuffer days = this.days;
+            for (int row = fromRow; row < toRow; row++) {
+                if (courses.get(row) == course && bit(live, row)) {
+                    acc.add((long) students.get(row) << 17 | (long) Short.toUnsignedInt(days.get(row)) << 1
+                            | (bit(present, row) ? 0 : 1));
+                }
+            }
+        }, LongList::addAll);
+        long[] sorted = marks.toArray();
+        Arrays.parallelSort(sorted);
+
+        List<AbsenceStreakDTO> streaks = new ArrayList<>();
+        int i = 0;
+        while (i < sorted.length) {
+            long student = sorted[i] >>> 17;
+            int recorded = 0;
+            int absences = 0;
+            int longest = 0;
+            int current = 0;
+            for (; i < sorted.length && sorted[i] >>> 17 == student; i++) {
+                recorded++;
+                if ((sorted[i] & 1) == 1) {
+                    absences++;
+                    longest = Math.max(longest, ++current);
+                } else {
+                    current = 0;
+                }
+            }
+            streaks.add(new AbsenceStreakDTO(student, recorded, absences, longest, current));
+        }
+        return streaks;
+    }
+
+    private <A> A scan(Supplier<A> identity, RangeScan<A> rangeScan, BinaryOperator<A> combine) {
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            int chunks = (rows + CHUNK - 1) / CHUNK;
+            return IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> {
+                        A accumulator = identity.get();
+                        rangeScan.scan(accumulator, chunk * CHUNK, Math.min(rows, (chunk + 1) * CHUNK));
+                        return accumulator;
+                    })
+                    .reduce(combine)
+                    .orElseGet(identity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void put(long studentId, long courseId, LocalDate date, boolean isPresent) {
+        long epochDay = date.toEpochDay();
+        if (!fits(studentId) || !fits(courseId) || epochDay < 0 || epochDay > 0xFFFF) {
+            skipped++;
+            return;
+        }
+        int student = (int) studentId;
+        int course = (int) courseId;
+        short day = (short) epochDay;
+        int found = find(student, course, day);
+        if (found >= 0) {
+            setBit(present, found, isPresent);
+            if (!bit(live, found)) {
+                setBit(live, found, true);
+                liveRows++;
+            }
+            return;
+        }
+        if (size == capacity) {
+            allocate(capacity * 2);
+            found = find(student, course, day);
+        }
+        int row = size++;
+        students.put(row, student);
+        courses.put(row, course);
+        days.put(row, day);
+        setBit(present, row, isPresent);
+        setBit(live, row, true);
+        liveRows++;
+        index.put(-1 - found, row + 1);
+    }
+
+    // The row holding the key, or -1 - the empty slot where it belongs
+    private int find(int student, int course, short day) {
+        int mask = index.capacity() - 1;
+        for (int slot = hash(student, course, day) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index.get(slot);
+            if (entry == 0) {
+                return -1 - slot;
+            }
+            int row = entry - 1;
+            if (students.get(row) == student && courses.get(row) == course && days.get(row) == day) {
+                return row;
+            }
+        }
+    }
+
+    // Grows every column to newCapacity, copying the rows in use, and rebuilds the index
+    private void allocate(int newCapacity) {
+        IntBuffer newStudents = ints(newCapacity);
+        IntBuffer newCourses = ints(newCapacity);
+        ShortBuffer newDays = ByteBuffer.allocateDirect(newCapacity * 2).order(ByteOrder.nativeOrder()).asShortBuffer();
+        LongBuffer newPresent = longs(newCapacity / 64);
+        LongBuffer newLive = longs(newCapacity / 64);
+        if (size > 0) {
+            newStudents.put(0, students, 0, size);
+            newCourses.put(0, courses, 0, size);
+            newDays.put(0, days, 0, size);
+            newPresent.put(0, present, 0, present.capacity());
+            newLive.put(0, live, 0, live.capacity());
+        }
+        students = newStudents;
+        courses = newCourses;
+        days = newDays;
+        present = newPresent;
+        live = newLive;
+        capacity = newCapacity;
+        index = ints(newCapacity * 2);
+        int mask = index.capacity() - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hash(students.get(row), courses.get(row), days.get(row)) & mask;
+            while (index.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index.put(slot, row + 1);
+        }
+    }
+
+    private static IntBuffer ints(int length) {
+        return ByteBuffer.allocateDirect(length * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static LongBuffer longs(int length) {
+        return ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    private static int hash(int student, int course, short day) {
+        int h = student * 0x9E3779B1 ^ course * 0x85EBCA6B ^ day * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean bit(LongBuffer bits, int row) {
+        return (bits.get(row >>> 6) & (1L << row)) != 0;
+    }
+
+    private static void setBit(LongBuffer bits, int row, boolean value) {
+        long word = bits.get(row >>> 6);
+        bits.put(row >>> 6, value ? word | (1L << row) : word & ~(1L << row));
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        LongList addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            return this;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.academictracker.analytics;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Absences of one course as a compressed bitmap of student ids per class day. Every day attendance
+// was taken has an entry, empty when nobody was absent, so "consecutive" means consecutive class days.
+// Not thread-safe; AbsenceBitmapIndex guards each instance.
+public class CourseAbsences {
+
+    private final TreeMap<LocalDate, RoaringBitmap> absentByDate = new TreeMap<>();
+
+    // False for ids the 32-bit bitmaps cannot hold; such marks are left out
+    public boolean record(LocalDate date, long studentId, boolean present) {
+        if (studentId < 0 || studentId > Integer.MAX_VALUE) {
+            return false;
+        }
+        RoaringBitmap absent = absentByDate.computeIfAbsent(date, d -> new RoaringBitmap());
+        if (present) {
+            absent.remove((int) studentId);
+        } else {
+            absent.add((int) studentId);
+        }
+        return true;
+    }
+
+    public void removeStudent(long studentId) {
+        if (studentId >= 0 && studentId <= Integer.MAX_VALUE) {
+            absentByDate.values().forEach(absent -> absent.remove((int) studentId));
+        }
+    }
+
+    // Students absent on every one of the dates; a date without attendance matches nobody
+    public RoaringBitmap absentOnAll(Collection<LocalDate> dates) {
+        RoaringBitmap result = null;
+        for (LocalDate date : dates) {
+            RoaringBitmap absent = absentByDate.get(date);
+            if (absent == null) {
+                return new RoaringBitmap();
+            }
+            result = result == null ? absent.clone() : RoaringBitmap.and(result, absent);
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? new RoaringBitmap() : result;
+    }
+
+    // Students absent on at least one of the dates
+    public RoaringBitmap absentOnAny(Collection<LocalDate> dates) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            RoaringBitmap absent = absentByDate.get(date);
+            if (absent != null) {
+                bitmaps.add(absent);
+            }
+        }
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    // Students absent on at least minDays consecutive class days between from and to (inclusive).
+    // runs[k] holds the students whose current run of absences is longer than k days.
+    public RoaringBitmap absentStreaks(int minDays, LocalDate from, LocalDate to) {
+        RoaringBitmap[] runs = new RoaringBitmap[minDays];
+        RoaringBitmap result = new RoaringBitmap();
+        NavigableMap<LocalDate, RoaringBitmap> days = absentByDate.subMap(from, true, to, true);
+        for (Map.Entry<LocalDate, RoaringBitmap> day : days.entrySet()) {
+            RoaringBitmap absent = day.getValue();
+            for (int k = minDays - 1; k > 0; k--) {
+                // Most runs die out within a day or two; skip the allocation when nothing carries over
+                RoaringBitmap previous = runs[k - 1];
+                runs[k] = previous != null && RoaringBitmap.intersects(previous, absent)
+                        ? RoaringBitmap.and(previous, absent)
+                        : null;
+            }
+            runs[0] = absent;
+            if (runs[minDays - 1] != null) {
+                result.or(runs[minDays - 1]);
+            }
+        }
+        return result;
+    }
+
+    public int days() {
+        return absentByDate.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.academictracker.config;
+
+import com.example.academictracker.analytics.AttendanceColumnStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Enabled by app.analytics.column-store.enabled. The store is filled from the attendances table at
+// startup (after Flyway) and then follows AttendanceRecordedEvent / AttendanceRemovedEvent.
+@Configuration
+@ConditionalOnProperty(name = "app.analytics.column-store.enabled", havingValue = "true")
+public class AnalyticsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsConfig.class);
+
+    @Bean
+    @DependsOnDatabaseInitialization
+    public AttendanceColumnStore attendanceColumnStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                                       @Value("${app.analytics.column-store.initial-capacity:65536}") int initialCapacity,
+                                                       @Value("${app.export.fetch-size:500}") int fetchSize) {
+        AttendanceColumnStore store = new AttendanceColumnStore(initialCapacity);
+        long start = System.nanoTime();
+        int rows = store.load(jdbcTemplate, fetchSize);
+        log.info("Loaded {} attendance rows into the column store in {} ms ({} skipped)",
+                rows, (System.nanoTime() - start) / 1_000_000, store.skipped());
+        Gauge.builder("analytics.column_store.rows", store, AttendanceColumnStore::rows).register(meterRegistry);
+        Gauge.builder("analytics.column_store.bytes", store, AttendanceColumnStore::offHeapBytes)
+                .baseUnit("bytes").register(meterRegistry);
+        return store;
+    }
+}
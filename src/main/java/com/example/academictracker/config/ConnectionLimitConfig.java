@@ -0,0 +1,34 @@
+package com.example.academictracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Enabled by app.db.concurrency-limit.enabled (virtual-threads profile). With virtual threads Tomcat no
+// longer bounds request concurrency, so the "dataSource" bean that JPA, JdbcTemplate and Flyway use is
+// wrapped in ConnectionLimitingDataSource. With a read replica that bean is the routing proxy, so the
+// limit covers both pools together.
+@Configuration
+@ConditionalOnProperty(name = "app.db.concurrency-limit.enabled", havingValue = "true")
+public class ConnectionLimitConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${app.db.concurrency-limit.max-concurrent}") int maxConcurrent,
+            @Value("${app.db.concurrency-limit.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (beanName.equals("dataSource") && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
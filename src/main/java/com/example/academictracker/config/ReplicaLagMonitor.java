@@ -0,0 +1,73 @@
+package com.example.academictracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+
+// Polls the replica's lag and takes it out of rotation when it is unreachable, not replicating or
+// more than max-lag-seconds behind. Until the first successful check all reads go to the primary.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, m -> m.available ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        Double lag;
+        try {
+            lag = replica.query(lagQuery, LAG);
+        } catch (RuntimeException e) {
+            log.warn("Replica lag check failed: {}", e.getMessage());
+            lag = null;
+        }
+        boolean nowAvailable = lag != null && lag <= maxLagSeconds;
+        if (nowAvailable != available) {
+            log.info("Replica {} for reads (lag {} s)", nowAvailable ? "enabled" : "disabled", lag);
+        }
+        lagSeconds = lag == null ? Double.NaN : lag;
+        available = nowAvailable;
+    }
+
+    // MySQL's SHOW REPLICA STATUS (or SHOW SLAVE STATUS) has many columns; any other query reports
+    // the lag in its first column. No row or a NULL lag means replication is not running.
+    private static final ResultSetExtractor<Double> LAG = rs -> {
+        if (!rs.next()) {
+            return null;
+        }
+        ResultSetMetaData meta = rs.getMetaData();
+        int column = 1;
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String name = meta.getColumnLabel(i);
+            if (name.equalsIgnoreCase("Seconds_Behind_Source") || name.equalsIgnoreCase("Seconds_Behind_Master")) {
+                column = i;
+            }
+        }
+        double lag = rs.getDouble(column);
+        return rs.wasNull() ? null : lag;
+    };
+}
@@ -0,0 +1,49 @@
+package com.example.academictracker.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Adds entity and operation tags to Boot's spring.data.repository.invocations timer, so time
+// can be grouped by table and by read/write/delete without parsing method names in dashboards.
+@Component
+public class RepositoryMetricsTags extends DefaultRepositoryTagsProvider {
+
+    private final Map<Class<?>, Tag> entityTags = new ConcurrentHashMap<>();
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation))
+                .and(entityTags.computeIfAbsent(invocation.getRepositoryInterface(), RepositoryMetricsTags::entityTag))
+                .and("operation", operation(invocation.getMethod().getName()));
+    }
+
+    private static Tag entityTag(Class<?> repositoryInterface) {
+        Class<?> entity = ResolvableType.forClass(repositoryInterface).as(Repository.class).resolveGeneric(0);
+        return Tag.of("entity", entity != null ? entity.getSimpleName() : "unknown");
+    }
+
+    static String operation(String methodName) {
+        if (methodName.startsWith("delete") || methodName.startsWith("remove")) {
+            return "delete";
+        }
+        if (methodName.startsWith("save") || methodName.startsWith("upsert")
+                || methodName.startsWith("insert") || methodName.startsWith("update")) {
+            return "write";
+        }
+        if (methodName.startsWith("stream")) {
+            return "stream";
+        }
+        if (methodName.startsWith("count") || methodName.startsWith("exists")) {
+            return "count";
+        }
+        return "read";
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.academictracker.controller;
+
+import com.example.academictracker.analytics.AttendanceColumnStore;
+import com.example.academictracker.service.CourseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Aggregates answered from the in-memory column store rather than the database
+@RestController
+@RequestMapping("/api/analytics/attendance")
+@ConditionalOnProperty(name = "app.analytics.column-store.enabled", havingValue = "true")
+public class AttendanceAnalyticsController {
+
+    @Autowired
+    private AttendanceColumnStore columnStore;
+
+    @Autowired
+    private CourseService courseService;
+
+    // Per-day present/total for one course or every course in a section, e.g. ?section=A&from=2025-01-06&to=2025-03-28
+    @GetMapping("/daily")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getDailyRates(@RequestParam(required = false) Long courseId,
+                                           @RequestParam(required = false) String section,
+                                           @RequestParam String from,
+                                           @RequestParam String to) {
+        try {
+            if ((courseId == null) == (section == null)) {
+                throw new IllegalArgumentException("Exactly one of courseId or section is required");
+            }
+            List<Long> courseIds = courseId != null
+                    ? List.of(courseService.getCourseById(courseId).getId())
+                    : courseService.getCourseIdsBySection(section);
+            return ResponseEntity.ok(columnStore.dailyRates(courseIds, parseDate(from), parseDate(to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Absences by day of week for a student, a course, both or the whole school
+    @GetMapping("/weekdays")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getWeekdayAbsences(@RequestParam(required = false) Long studentId,
+                                                @RequestParam(required = false) Long courseId) {
+        return ResponseEntity.ok(columnStore.weekdayAbsences(studentId, courseId));
+    }
+
+    @GetMapping("/course/{id}/streaks")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAbsenceStreaks(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(columnStore.absenceStreaks(courseService.getCourseById(id).getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+    }
+}
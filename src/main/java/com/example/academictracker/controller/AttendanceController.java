@@ -1,19 +1,30 @@
 package com.example.academictracker.controller;
 
 import com.example.academictracker.dto.AttendanceDTO;
+import com.example.academictracker.dto.AttendanceFilterDTO;
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.BulkAttendanceResultDTO;
 import com.example.academictracker.model.Attendance;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
 import com.example.academictracker.service.AttendanceService;
+import com.example.academictracker.service.ChangeTracker;
 import com.example.academictracker.service.UserService;
 import com.example.academictracker.service.CourseService;
+import com.example.academictracker.export.ExportFormat;
+import com.example.academictracker.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -29,6 +40,15 @@ public class AttendanceController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/mark")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> markAttendance(@Valid @RequestBody AttendanceDTO attendanceDTO) {
@@ -43,7 +63,26 @@ public class AttendanceController {
             attendance.setPresent(attendanceDTO.isPresent());
             attendance.setRemarks(attendanceDTO.getRemarks());
 
-            return ResponseEntity.ok(attendanceService.markAttendance(attendance));
+            Attendance marked = attendanceService.markAttendance(attendance);
+            // Write-behind: logged durably but not yet in the database
+            return attendanceService.isWriteBehind()
+                    ? ResponseEntity.accepted().body(marked)
+                    : ResponseEntity.ok(marked);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/mark/bulk")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> markBulkAttendance(@Valid @RequestBody BulkAttendanceDTO bulkAttendanceDTO) {
+        try {
+            Course course = courseService.getCourseById(bulkAttendanceDTO.getCourseId());
+            List<BulkAttendanceResultDTO> results = attendanceService.markBulkAttendance(
+                    course, bulkAttendanceDTO.getDate(), bulkAttendanceDTO.getEntries());
+            return attendanceService.isWriteBehind()
+                    ? ResponseEntity.accepted().body(results)
+                    : ResponseEntity.ok(results);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -51,11 +90,11 @@ public class AttendanceController {
 
     @GetMapping("/student/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('PARENT')")
-    public ResponseEntity<?> getAttendanceByStudent(@PathVariable Long id) {
+    public ResponseEntity<?> getAttendanceByStudent(@PathVariable Long id, WebRequest request) {
         try {
-            List<Attendance> attendances = attendanceService.getAttendanceByStudentId(id);
-            return ResponseEntity.ok(attendances);
-        } catch (Exception e) {
+            return ConditionalResponses.ok(request, changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, id),
+                    () -> attendanceService.getAttendanceRowsByStudentId(id));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -64,18 +103,164 @@ public class AttendanceController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getAttendanceByCourse(@PathVariable Long id) {
         try {
-            List<Attendance> attendances = attendanceService.getAttendanceByCourseId(id);
+            List<AttendanceRowDTO> attendances = attendanceService.getAttendanceRowsByCourseId(id);
             return ResponseEntity.ok(attendances);
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/course/{id}", params = "limit")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAttendancePageByCourse(@PathVariable Long id,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAttendancePageByCourseId(id, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/course/{id}/stream")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> streamAttendanceByCourse(@PathVariable Long id) {
+        try {
+            courseService.getCourseById(id);
+        } catch (IllegalArgumentException e) {
+            return NdjsonStreams.badRequest(e.getMessage());
+        }
+        return NdjsonStreams.<AttendanceRowDTO>stream(objectMapper,
+                sink -> attendanceService.streamAttendanceByCourseId(id, sink));
+    }
+
+    // Term register as a file download, streamed from a database cursor: format=csv|xlsx, gzip=true|false
+    @GetMapping("/course/{id}/export")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceByCourse(@PathVariable Long id,
+                                                                          @RequestParam(defaultValue = "csv") String format,
+                                                                          @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat;
+        try {
+            courseService.getCourseById(id);
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return NdjsonStreams.badRequest(e.getMessage());
+        }
+        return ExportResponses.export(exportFormat, gzip, "attendance-course-" + id, "Attendance",
+                writer -> exportService.exportAttendanceByCourseId(id, writer));
+    }
+
+    @GetMapping("/stats/student/{id}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('PARENT')")
+    public ResponseEntity<?> getAttendanceStatsByStudent(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAttendanceStatsByStudentId(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/stats/course/{id}")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAttendanceStatsByCourse(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAttendanceStatsByCourseId(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Ids of students absent on all (match=all) or any (match=any) of the dates, e.g. ?dates=2025-03-03,2025-03-04
+    @GetMapping("/course/{id}/absent")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAbsentStudents(@PathVariable Long id,
+                                               @RequestParam List<String> dates,
+                                               @RequestParam(defaultValue = "all") String match) {
+        try {
+            if (!match.equals("all") && !match.equals("any")) {
+                throw new IllegalArgumentException("match must be all or any");
+            }
+            Course course = courseService.getCourseById(id);
+            List<LocalDate> days = dates.stream().map(AttendanceController::parseDate).toList();
+            return ResponseEntity.ok(attendanceService.getStudentsAbsentOn(course, days, match.equals("all")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Ids of students absent on minDays or more consecutive class days, optionally within from/to
+    @GetMapping("/course/{id}/absent/streaks")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAbsenceStreaks(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "3") int minDays,
+                                               @RequestParam(required = false) String from,
+                                               @RequestParam(required = false) String to) {
+        try {
+            Course course = courseService.getCourseById(id);
+            return ResponseEntity.ok(attendanceService.getStudentsWithAbsenceStreak(
+                    course, minDays, parseDate(from), parseDate(to)));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/date/{date}")
     @PreAuthorize("hasRole('TEACHER')")
-    public List<Attendance> getAttendanceByDate(@PathVariable String date) {
+    public List<AttendanceRowDTO> getAttendanceByDate(@PathVariable String date) {
+        LocalDate localDate = LocalDate.parse(date);
+        return attendanceService.getAttendanceRowsByDate(localDate);
+    }
+
+    @GetMapping(value = "/date/{date}", params = "limit")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getAttendancePageByDate(@PathVariable String date,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(attendanceService.getAttendancePageByDate(LocalDate.parse(date), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Combined filters, e.g. ?courseId=3&from=2025-01-06&to=2025-03-28&present=false&limit=100
+    @GetMapping("/filter")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> filterAttendance(@RequestParam(required = false) Long studentId,
+                                              @RequestParam(required = false) Long courseId,
+                                              @RequestParam(required = false) String from,
+                                              @RequestParam(required = false) String to,
+                                              @RequestParam(required = false) Boolean present,
+                                              @RequestParam(required = false) String section,
+                                              @RequestParam(required = false) Long teacherId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        try {
+            AttendanceFilterDTO filter = new AttendanceFilterDTO(studentId, courseId, parseDate(from), parseDate(to),
+                    present, section, teacherId);
+            return ResponseEntity.ok(attendanceService.filterAttendance(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/date/{date}/stream")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> streamAttendanceByDate(@PathVariable String date) {
         LocalDate localDate = LocalDate.parse(date);
-        return attendanceService.getAttendanceByDate(localDate);
+        return NdjsonStreams.<AttendanceRowDTO>stream(objectMapper,
+                sink -> attendanceService.streamAttendanceByDate(localDate, sink));
     }
 
+    private static LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+    }
 }
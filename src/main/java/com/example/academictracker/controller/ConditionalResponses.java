@@ -0,0 +1,26 @@
+package com.example.academictracker.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Conditional GET for polled endpoints: the ETag comes from ChangeTracker, so a matching
+// If-None-Match is answered with 304 before the body is loaded. no-cache lets clients keep the
+// body but makes them revalidate on every poll.
+final class ConditionalResponses {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {}
+
+    static <T> ResponseEntity<T> ok(WebRequest request, String etag, Supplier<T> body) {
+        // checkNotModified has already set the 304 status and the ETag header
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body.get());
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.academictracker.controller;
 
+import com.example.academictracker.dto.CourseRowDTO;
 import com.example.academictracker.model.Course;
+import com.example.academictracker.service.ChangeTracker;
 import com.example.academictracker.service.CourseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,10 +22,33 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/all")
     @PreAuthorize("isAuthenticated()")
-    public List<Course> getAllCourses() {
-        return courseService.getAllCourses();
+    public ResponseEntity<List<CourseRowDTO>> getAllCourses(WebRequest request) {
+        return ConditionalResponses.ok(request, changeTracker.etag(ChangeTracker.Scope.COURSE_CATALOG, null),
+                courseService::getAllCourseRows);
+    }
+
+    @GetMapping(value = "/all", params = "limit")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getCoursesPage(@RequestParam(required = false) String cursor, @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(courseService.getCoursesPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/all/stream")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return NdjsonStreams.<CourseRowDTO>stream(objectMapper, courseService::streamAllCourses);
     }
 
     @GetMapping("/{id}")
@@ -39,17 +67,20 @@ public class CourseController {
     public ResponseEntity<?> addCourse(@Valid @RequestBody Course course) {
         try {
             return ResponseEntity.ok(courseService.addCourse(course));
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // async=true hides the course immediately and purges its attendance and marks in the background (202)
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deleteCourse(@PathVariable Long id) {
+    public ResponseEntity<?> deleteCourse(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean async) {
         try {
-            courseService.deleteCourse(id);
-            return ResponseEntity.ok("Course deleted successfully");
+            if (async) {
+                return ResponseEntity.accepted().body(courseService.scheduleCourseDeletion(id));
+            }
+            return ResponseEntity.ok(courseService.deleteCourse(id));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,41 @@
+package com.example.academictracker.controller;
+
+import com.example.academictracker.export.ExportFormat;
+import com.example.academictracker.export.TabularWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+// Writes an export straight to the response as CSV or XLSX, optionally gzipped, as a download
+final class ExportResponses {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private ExportResponses() {}
+
+    static ResponseEntity<StreamingResponseBody> export(ExportFormat format, boolean gzip, String baseName,
+                                                        String sheetName, Consumer<TabularWriter> producer) {
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+            OutputStream target = compressed != null ? compressed : out;
+            try (TabularWriter writer = format.open(target, sheetName)) {
+                producer.accept(writer);
+                writer.finish();
+            }
+            if (compressed != null) {
+                compressed.finish();
+            }
+        };
+        String filename = baseName + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.academictracker.controller;
 
+import com.example.academictracker.dto.MarksFilterDTO;
+import com.example.academictracker.dto.MarksRowDTO;
 import com.example.academictracker.model.Marks;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
 import com.example.academictracker.service.MarksService;
+import com.example.academictracker.service.ChangeTracker;
 import com.example.academictracker.service.UserService;
 import com.example.academictracker.service.CourseService;
+import com.example.academictracker.export.ExportFormat;
+import com.example.academictracker.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -27,6 +35,15 @@ public class MarksController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/add")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> addMarks(@Valid @RequestBody Marks marks) {
@@ -38,18 +55,18 @@ public class MarksController {
                 return ResponseEntity.badRequest().body("Course ID is required");
             }
             return ResponseEntity.ok(marksService.addMarks(marks));
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/student/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('PARENT')")
-    public ResponseEntity<?> getMarksByStudent(@PathVariable Long id) {
+    public ResponseEntity<?> getMarksByStudent(@PathVariable Long id, WebRequest request) {
         try {
-            List<Marks> marks = marksService.getMarksByStudentId(id);
-            return ResponseEntity.ok(marks);
-        } catch (Exception e) {
+            return ConditionalResponses.ok(request, changeTracker.etag(ChangeTracker.Scope.STUDENT_MARKS, id),
+                    () -> marksService.getMarksRowsByStudentId(id));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -58,11 +75,80 @@ public class MarksController {
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> getMarksByCourse(@PathVariable Long id) {
         try {
-            List<Marks> marks = marksService.getMarksByCourseId(id);
+            List<MarksRowDTO> marks = marksService.getMarksRowsByCourseId(id);
             return ResponseEntity.ok(marks);
-        } catch (Exception e) {
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/stats/course/{id}")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getMarksStatsByCourse(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(marksService.getMarksStatsByCourseId(id));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    @GetMapping(value = "/course/{id}", params = "limit")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> getMarksPageByCourse(@PathVariable Long id,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(marksService.getMarksPageByCourseId(id, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Combined filters, e.g. ?section=B&teacherId=4&maxScore=40&limit=100
+    @GetMapping("/filter")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> filterMarks(@RequestParam(required = false) Long studentId,
+                                         @RequestParam(required = false) Long courseId,
+                                         @RequestParam(required = false) String section,
+                                         @RequestParam(required = false) Long teacherId,
+                                         @RequestParam(required = false) Double minScore,
+                                         @RequestParam(required = false) Double maxScore,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        try {
+            MarksFilterDTO filter = new MarksFilterDTO(studentId, courseId, section, teacherId, minScore, maxScore);
+            return ResponseEntity.ok(marksService.filterMarks(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/course/{id}/stream")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> streamMarksByCourse(@PathVariable Long id) {
+        try {
+            courseService.getCourseById(id);
+        } catch (IllegalArgumentException e) {
+            return NdjsonStreams.badRequest(e.getMessage());
+        }
+        return NdjsonStreams.<MarksRowDTO>stream(objectMapper, sink -> marksService.streamMarksByCourseId(id, sink));
+    }
+
+    // Term register as a file download, streamed from a database cursor: format=csv|xlsx, gzip=true|false
+    @GetMapping("/course/{id}/export")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> exportMarksByCourse(@PathVariable Long id,
+                                                                     @RequestParam(defaultValue = "csv") String format,
+                                                                     @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat;
+        try {
+            courseService.getCourseById(id);
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return NdjsonStreams.badRequest(e.getMessage());
+        }
+        return ExportResponses.export(exportFormat, gzip, "marks-course-" + id, "Marks",
+                writer -> exportService.exportMarksByCourseId(id, writer));
+    }
+
 }
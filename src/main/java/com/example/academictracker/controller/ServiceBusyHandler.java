@@ -0,0 +1,37 @@
+package com.example.academictracker.controller;
+
+import com.example.academictracker.exception.ServiceBusyException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// 503 + Retry-After for saturated resources. A full connection limit usually surfaces wrapped by the
+// transaction manager or JdbcTemplate, so those wrappers are unwrapped to the original message.
+@RestControllerAdvice
+public class ServiceBusyHandler {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<String> serviceBusy(ServiceBusyException e) {
+        return unavailable(e.getMessage());
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<String> noConnection(RuntimeException e) {
+        return unavailable(NestedExceptionUtils.getMostSpecificCause(e) instanceof ServiceBusyException busy
+                ? busy.getMessage()
+                : "Database unavailable, please retry");
+    }
+
+    private static ResponseEntity<String> unavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .body(message);
+    }
+}
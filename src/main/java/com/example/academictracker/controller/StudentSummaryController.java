@@ -0,0 +1,49 @@
+package com.example.academictracker.controller;
+
+import com.example.academictracker.dto.StudentSummaryDTO;
+import com.example.academictracker.service.StudentSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/summary")
+public class StudentSummaryController {
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    // Dashboard view: one precomputed row per course the student has attendance or marks in
+    @GetMapping("/student/{id}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('PARENT')")
+    public ResponseEntity<?> getSummariesByStudent(@PathVariable Long id) {
+        try {
+            List<StudentSummaryDTO> summaries = studentSummaryService.getSummariesByStudentId(id);
+            return ResponseEntity.ok(summaries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/student/{studentId}/course/{courseId}")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER') or hasRole('PARENT')")
+    public ResponseEntity<?> getSummary(@PathVariable Long studentId, @PathVariable Long courseId) {
+        try {
+            return ResponseEntity.ok(studentSummaryService.getSummary(studentId, courseId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Recomputes all summaries from attendances and marks
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuild() {
+        int rows = studentSummaryService.rebuild();
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.academictracker.controller;
 
+import com.example.academictracker.dto.UserRowDTO;
 import com.example.academictracker.model.User;
 import com.example.academictracker.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +20,29 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public List<UserRowDTO> getAllUsers() {
+        return userService.getAllUserRows();
+    }
+
+    @GetMapping(value = "/all", params = "limit")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUsersPage(@RequestParam(required = false) String cursor, @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/all/stream")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return NdjsonStreams.<UserRowDTO>stream(objectMapper, userService::streamAllUsers);
     }
 
     @GetMapping("/email/{email}")
@@ -45,8 +67,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         try {
-            userService.deleteUser(id);
-            return ResponseEntity.ok("User deleted successfully");
+            return ResponseEntity.ok(userService.deleteUser(id));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
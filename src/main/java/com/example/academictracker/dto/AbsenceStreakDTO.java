@@ -0,0 +1,5 @@
+package com.example.academictracker.dto;
+
+// Streaks count consecutive recorded class days (days attendance was taken for the student), not calendar days
+public record AbsenceStreakDTO(Long studentId, int recorded, int absences, int longestStreak, int currentStreak) {
+}
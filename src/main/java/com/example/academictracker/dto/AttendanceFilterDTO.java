@@ -0,0 +1,8 @@
+package com.example.academictracker.dto;
+
+import java.time.LocalDate;
+
+// Optional attendance filters, combined with AND; from and to are inclusive
+public record AttendanceFilterDTO(Long studentId, Long courseId, LocalDate from, LocalDate to,
+                                  Boolean present, String section, Long teacherId) {
+}
@@ -0,0 +1,8 @@
+package com.example.academictracker.dto;
+
+import java.time.LocalDate;
+
+// One attendance mark with its student and course names; id is null for marks still queued for write-behind
+public record AttendanceRowDTO(Long id, Long studentId, String studentName, Long courseId, String courseName,
+                               LocalDate date, boolean present, String remarks) {
+}
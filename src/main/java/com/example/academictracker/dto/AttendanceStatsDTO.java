@@ -0,0 +1,12 @@
+package com.example.academictracker.dto;
+
+// Attendance totals for one student in one course, aggregated by the database
+public record AttendanceStatsDTO(Long studentId, String studentName, Long courseId, String courseName,
+                                 long presentCount, long totalCount, double percentage) {
+
+    public AttendanceStatsDTO(Long studentId, String studentName, Long courseId, String courseName,
+                              Long presentCount, Long totalCount) {
+        this(studentId, studentName, courseId, courseName, presentCount, totalCount,
+                totalCount == 0 ? 0.0 : presentCount * 100.0 / totalCount);
+    }
+}
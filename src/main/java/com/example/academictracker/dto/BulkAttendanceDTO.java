@@ -0,0 +1,43 @@
+package com.example.academictracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+public class BulkAttendanceDTO {
+    @NotNull
+    private Long courseId;
+
+    @NotNull
+    private LocalDate date;
+
+    @NotEmpty
+    @Valid
+    private List<Entry> entries;
+
+    public static class Entry {
+        @NotNull
+        private Long studentId;
+
+        private boolean present;
+
+        private String remarks;
+
+        public Long getStudentId() { return studentId; }
+        public void setStudentId(Long studentId) { this.studentId = studentId; }
+        public boolean isPresent() { return present; }
+        public void setPresent(boolean present) { this.present = present; }
+        public String getRemarks() { return remarks; }
+        public void setRemarks(String remarks) { this.remarks = remarks; }
+    }
+
+    // Getters and Setters
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    public List<Entry> getEntries() { return entries; }
+    public void setEntries(List<Entry> entries) { this.entries = entries; }
+}
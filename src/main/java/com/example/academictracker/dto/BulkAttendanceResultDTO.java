@@ -0,0 +1,31 @@
+package com.example.academictracker.dto;
+
+public class BulkAttendanceResultDTO {
+    private Long studentId;
+    private boolean success;
+    private String message;
+
+    public BulkAttendanceResultDTO() {}
+
+    public BulkAttendanceResultDTO(Long studentId, boolean success, String message) {
+        this.studentId = studentId;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static BulkAttendanceResultDTO marked(Long studentId) {
+        return new BulkAttendanceResultDTO(studentId, true, "Marked");
+    }
+
+    public static BulkAttendanceResultDTO failed(Long studentId, String message) {
+        return new BulkAttendanceResultDTO(studentId, false, message);
+    }
+
+    // Getters and Setters
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,5 @@
+package com.example.academictracker.dto;
+
+// Course list row; teacherId and teacherName are null for a course without a teacher
+public record CourseRowDTO(Long id, String name, String section, Long teacherId, String teacherName) {
+}
@@ -0,0 +1,10 @@
+package com.example.academictracker.dto;
+
+import java.time.LocalDate;
+
+public record DailyAttendanceRateDTO(LocalDate date, long present, long total) {
+
+    public double rate() {
+        return total == 0 ? 0 : (double) present / total;
+    }
+}
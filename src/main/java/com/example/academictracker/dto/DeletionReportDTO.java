@@ -0,0 +1,12 @@
+package com.example.academictracker.dto;
+
+// Rows removed by a delete; PURGING means the entity is hidden and its rows are removed in the background
+public record DeletionReportDTO(String entity, Long id, Status status,
+                                long attendances, long marks, long summaries) {
+
+    public enum Status { DELETED, PURGING }
+
+    public static DeletionReportDTO purging(String entity, Long id) {
+        return new DeletionReportDTO(entity, id, Status.PURGING, 0, 0, 0);
+    }
+}
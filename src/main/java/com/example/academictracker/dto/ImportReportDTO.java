@@ -0,0 +1,11 @@
+package com.example.academictracker.dto;
+
+import java.util.List;
+
+// Outcome of a CSV import: counts, throughput and the reason each rejected row was skipped
+public record ImportReportDTO(String entity, long rows, long imported, long failed,
+                              long elapsedMillis, double rowsPerSecond,
+                              List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {}
+}
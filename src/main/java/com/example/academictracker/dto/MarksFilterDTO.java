@@ -0,0 +1,6 @@
+package com.example.academictracker.dto;
+
+// Optional marks filters, combined with AND; the score bounds are inclusive
+public record MarksFilterDTO(Long studentId, Long courseId, String section, Long teacherId,
+                             Double minScore, Double maxScore) {
+}
@@ -0,0 +1,6 @@
+package com.example.academictracker.dto;
+
+// One score with the student and course names it is listed under
+public record MarksRowDTO(Long id, Long studentId, String studentName, Long courseId, String courseName,
+                          Double score) {
+}
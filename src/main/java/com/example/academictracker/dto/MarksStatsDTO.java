@@ -0,0 +1,6 @@
+package com.example.academictracker.dto;
+
+// Score distribution for one course; the statistics are null when the course has no marks
+public record MarksStatsDTO(Long courseId, long count, Double min, Double max, Double mean, Double median,
+                            Double stddev) {
+}
@@ -0,0 +1,15 @@
+package com.example.academictracker.dto;
+
+// One student's precomputed attendance and marks totals in one course
+public record StudentSummaryDTO(Long studentId, Long courseId, String courseName,
+                                long attendancePresent, long attendanceTotal, double attendancePercentage,
+                                long marksCount, Double marksAverage, Double marksMin, Double marksMax) {
+
+    public StudentSummaryDTO(Long studentId, Long courseId, String courseName,
+                             Long attendancePresent, Long attendanceTotal,
+                             Long marksCount, Double marksSum, Double marksMin, Double marksMax) {
+        this(studentId, courseId, courseName, attendancePresent, attendanceTotal,
+                attendanceTotal == 0 ? 0.0 : attendancePresent * 100.0 / attendanceTotal,
+                marksCount, marksCount == 0 ? null : marksSum / marksCount, marksMin, marksMax);
+    }
+}
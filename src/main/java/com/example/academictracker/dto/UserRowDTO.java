@@ -0,0 +1,7 @@
+package com.example.academictracker.dto;
+
+import com.example.academictracker.model.Role;
+
+// User list row; the password hash is never selected
+public record UserRowDTO(Long id, String name, String email, Role role) {
+}
@@ -0,0 +1,6 @@
+package com.example.academictracker.dto;
+
+import java.time.DayOfWeek;
+
+public record WeekdayAbsenceDTO(DayOfWeek day, long absent, long total) {
+}
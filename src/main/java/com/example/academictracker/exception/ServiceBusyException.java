@@ -0,0 +1,14 @@
+package com.example.academictracker.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a bounded resource (connection permits, worker pool) is saturated;
+// the request is rejected with 503 instead of queueing behind everyone else.
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.academictracker.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.OutputStream;
+
+public enum ExportFormat {
+    CSV("csv", MediaType.parseMediaType("text/csv")),
+    XLSX("xlsx", MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() { return extension; }
+    public MediaType getMediaType() { return mediaType; }
+
+    public TabularWriter open(OutputStream out, String sheetName) {
+        return this == XLSX ? new XlsxTabularWriter(out, sheetName) : new CsvTabularWriter(out);
+    }
+
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or xlsx)");
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.academictracker.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+// Row-at-a-time sink for exports; implementations must not buffer the whole table in memory.
+// Always closed, also when the export fails part way, to release temp files.
+public interface TabularWriter extends Closeable {
+
+    void header(String... columns) throws IOException;
+
+    // Values may be String, Number, Boolean, LocalDate or null
+    void row(Object... values) throws IOException;
+
+    // Writes anything still buffered; the underlying stream is left open
+    void finish() throws IOException;
+
+    // Releases resources without writing; the underlying stream is left open
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,102 @@
+package com.example.academictracker.ingest;
+
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.BulkAttendanceResultDTO;
+import com.example.academictracker.service.AttendanceService;
+import com.example.academictracker.service.CourseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Drains the write-behind queue: marks are grouped by (course, date) and each group is written with
+// storeBulkAttendance in its own transaction. A group rejected as invalid (course or student gone) is
+// dropped; any other failure puts it back for the next run.
+@Component
+@ConditionalOnProperty(name = "app.attendance.write-behind.enabled", havingValue = "true")
+public class AttendanceWriteBehindFlusher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceWriteBehindFlusher.class);
+
+    private record Group(Long courseId, LocalDate date) {}
+
+    @Autowired
+    private AttendanceWriteBehindQueue queue;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.attendance.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.attendance.write-behind.flush-interval-ms:200}")
+    public synchronized void flush() {
+        List<PendingMark> batch;
+        while (!(batch = queue.drain(batchSize)).isEmpty()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Map<Group, List<PendingMark>> groups = batch.stream().collect(Collectors.groupingBy(
+                    mark -> new Group(mark.courseId(), mark.date()), LinkedHashMap::new, Collectors.toList()));
+            boolean requeued = false;
+            for (Map.Entry<Group, List<PendingMark>> group : groups.entrySet()) {
+                requeued |= !write(group.getKey(), group.getValue());
+            }
+            sample.stop(meterRegistry.timer("attendance.write_behind.flush"));
+            if (requeued) {
+                // Leave the rest for the next scheduled run instead of retrying in a tight loop
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    // Returns false when the marks were put back on the queue
+    private boolean write(Group group, List<PendingMark> marks) {
+        try {
+            List<BulkAttendanceResultDTO> results = attendanceService.storeBulkAttendance(
+                    courseService.getCourseById(group.courseId()), group.date(), marks.stream().map(mark -> {
+                        BulkAttendanceDTO.Entry entry = new BulkAttendanceDTO.Entry();
+                        entry.setStudentId(mark.studentId());
+                        entry.setPresent(mark.present());
+                        entry.setRemarks(mark.remarks());
+                        return entry;
+                    }).toList());
+            results.stream().filter(result -> !result.isSuccess()).forEach(result ->
+                    log.warn("Dropped pending attendance for course {} on {}: {}",
+                            group.courseId(), group.date(), result.getMessage()));
+            queue.completed(marks);
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.warn("Dropped {} pending attendance marks for course {} on {}: {}",
+                    marks.size(), group.courseId(), group.date(), e.getMessage());
+            queue.completed(marks);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} attendance marks for course {} on {}, will retry",
+                    marks.size(), group.courseId(), group.date(), e);
+            queue.failed(marks);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.academictracker.ingest;
+
+import com.example.academictracker.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+// Durable queue for attendance marks: every mark is appended to a local log file (and fsynced,
+// group-committed across concurrent callers) before it is acknowledged, then kept in memory with
+// later marks for the same (student, course, date) replacing earlier ones. Single and bulk marks both
+// go through here, so the flusher and a replay always apply them in the order they were acknowledged.
+// The log is replayed on startup and truncated whenever everything in it has been flushed to the
+// database. At most max-pending marks are held; beyond that appends are rejected with 503.
+@Component
+@ConditionalOnProperty(name = "app.attendance.write-behind.enabled", havingValue = "true")
+public class AttendanceWriteBehindQueue implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AttendanceWriteBehindQueue.class);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final int maxPending;
+    private final Counter coalesced;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private final Map<PendingMark.Key, PendingMark> pending = new LinkedHashMap<>();
+    private final Map<PendingMark.Key, PendingMark> inFlight = new HashMap<>();
+
+    // Set when a failed append could not be rolled back; guarded by this
+    private boolean tornTail;
+
+    // Bytes ever appended and bytes known to be on disk; never reset, so they stay comparable across truncation
+    private volatile long written;
+    private volatile long synced;
+
+    public AttendanceWriteBehindQueue(@Value("${app.attendance.write-behind.dir:data/attendance-log}") Path dir,
+                                      @Value("${app.attendance.write-behind.fsync:true}") boolean fsync,
+                                      @Value("${app.attendance.write-behind.max-pending:100000}") int maxPending,
+                                      MeterRegistry meterRegistry) throws IOException {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("app.attendance.write-behind.max-pending must be positive");
+        }
+        Files.createDirectories(dir);
+        this.file = dir.resolve("attendance.log");
+        this.channel = open(file);
+        this.fsync = fsync;
+        this.maxPending = maxPending;
+        this.coalesced = meterRegistry.counter("attendance.write_behind.coalesced");
+        Gauge.builder("attendance.write_behind.pending", this, AttendanceWriteBehindQueue::size).register(meterRegistry);
+        replay();
+    }
+
+    // Returns once the mark is in the log (on disk when fsync is on)
+    public void append(PendingMark mark) {
+        append(List.of(mark));
+    }
+
+    // All or nothing: either every mark is logged or, when they would not fit, none is
+    public void append(List<PendingMark> marks) {
+        StringBuilder lines = new StringBuilder();
+        marks.forEach(mark -> lines.append(encode(mark)));
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        long end;
+        synchronized (this) {
+            // Marks replacing a pending one do not take up room
+            long added = marks.stream().map(PendingMark::key).distinct().filter(key -> !pending.containsKey(key)).count();
+            if (added > 0 && size() + added > maxPending) {
+                throw new ServiceBusyException("Too many attendance marks waiting to be saved, please retry");
+            }
+            write(buffer);
+            for (PendingMark mark : marks) {
+                if (pending.put(mark.key(), mark) != null) {
+                    coalesced.increment();
+                }
+            }
+            end = written += buffer.capacity();
+        }
+        sync(end);
+    }
+
+    // A failed write (e.g. disk full) is rolled back, so the next mark does not land on the same line
+    // as a torn fragment and get skipped with it on replay. If even that fails, the next append starts
+    // on a fresh line instead. Called with the monitor held.
+    private void write(ByteBuffer buffer) {
+        long start = -1;
+        try {
+            if (tornTail) {
+                ByteBuffer newline = ByteBuffer.wrap(new byte[] {'\n'});
+                while (newline.hasRemaining()) {
+                    channel.write(newline);
+                }
+                tornTail = false;
+            }
+            start = channel.position();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException rollback) {
+                    e.addSuppressed(rollback);
+                    tornTail = true;
+                }
+            }
+            throw new UncheckedIOException("Could not append to the attendance log", e);
+        }
+    }
+
+    // Moves up to max marks to in-flight; they stay visible to reads until completed or failed
+    public synchronized List<PendingMark> drain(int max) {
+        List<PendingMark> batch = new ArrayList<>(Math.min(max, pending.size()));
+        Iterator<PendingMark> marks = pending.values().iterator();
+        while (marks.hasNext() && batch.size() < max) {
+            PendingMark mark = marks.next();
+            marks.remove();
+            inFlight.put(mark.key(), mark);
+            batch.add(mark);
+        }
+        return batch;
+    }
+
+    public synchronized void completed(Collection<PendingMark> marks) {
+        marks.forEach(mark -> inFlight.remove(mark.key(), mark));
+        if (pending.isEmpty() && inFlight.isEmpty()) {
+            truncate();
+        }
+    }
+
+    // Puts marks back for the next flush unless a newer mark for the same key arrived meanwhile
+    public synchronized void failed(Collection<PendingMark> marks) {
+        for (PendingMark mark : marks) {
+            inFlight.remove(mark.key(), mark);
+            pending.putIfAbsent(mark.key(), mark);
+        }
+    }
+
+    // Marks not yet in the database that match the filter, newest value per key
+    public synchronized List<PendingMark> unflushed(Predicate<PendingMark> filter) {
+        Map<PendingMark.Key, PendingMark> merged = new LinkedHashMap<>(inFlight);
+        merged.putAll(pending);
+        return merged.values().stream().filter(filter).toList();
+    }
+
+    public synchronized int size() {
+        return pending.size() + inFlight.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        channel.close();
+    }
+
+    private void sync(long end) {
+        if (!fsync || synced >= end) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= end) {
+                return;
+            }
+            // One force covers every append that finished before it started
+            long target = written;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync the attendance log", e);
+            }
+            synced = target;
+        }
+    }
+
+    // Overridden in tests to inject write failures
+    FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Called with the monitor held, so no append can interleave
+    private void truncate() {
+        try {
+            if (channel.size() > 0) {
+                channel.truncate(0);
+                channel.position(0);
+                tornTail = false;
+            }
+        } catch (IOException e) {
+            log.warn("Could not truncate the attendance log", e);
+        }
+    }
+
+    private void replay() throws IOException {
+        if (channel.size() == 0) {
+            return;
+        }
+        byte[] content = Files.readAllBytes(file);
+        int start = 0;
+        int lines = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] != '\n') {
+                continue;
+            }
+            String line = new String(content, start, i - start, StandardCharsets.UTF_8);
+            try {
+                PendingMark mark = decode(line);
+                pending.put(mark.key(), mark);
+                lines++;
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable attendance log entry: {}", line);
+            }
+            start = i + 1;
+        }
+        // Anything after the last newline is an append cut short by a crash and was never acknowledged
+        channel.truncate(start);
+        channel.position(start);
+        log.info("Replayed {} attendance log entries, {} marks pending", lines, pending.size());
+    }
+
+    // One tab-separated line per mark; nullable text is stored as "-" or "=" + escaped value
+    static String encode(PendingMark mark) {
+        return mark.studentId() + "\t" + mark.courseId() + "\t" + mark.date() + "\t" + (mark.present() ? 1 : 0)
+                + "\t" + text(mark.remarks()) + "\t" + text(mark.studentName()) + "\t" + text(mark.courseName()) + "\n";
+    }
+
+    static PendingMark decode(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Expected 7 fields");
+        }
+        return new PendingMark(Long.valueOf(fields[0]), untext(fields[5]), Long.valueOf(fields[1]), untext(fields[6]),
+                LocalDate.parse(fields[2]), fields[3].equals("1"), untext(fields[4]));
+    }
+
+    private static String text(String value) {
+        if (value == null) {
+            return "-";
+        }
+        return "=" + value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String untext(String field) {
+        if (field.equals("-")) {
+            return null;
+        }
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 1; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char next = field.charAt(++i);
+                value.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.academictracker.ingest;
+
+import java.time.LocalDate;
+
+// An attendance mark accepted by the write-behind queue but not yet written to the database.
+// Names are kept so reads can show the row before it is flushed.
+public record PendingMark(Long studentId, String studentName, Long courseId, String courseName,
+                          LocalDate date, boolean present, String remarks) {
+
+    public record Key(Long studentId, Long courseId, LocalDate date) {}
+
+    public Key key() {
+        return new Key(studentId, courseId, date);
+    }
+}
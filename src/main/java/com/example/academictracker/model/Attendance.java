@@ -6,7 +6,13 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "attendances")
+@Table(name = "attendances",
+        indexes = {
+                @Index(name = "idx_attendance_course_date", columnList = "course_id, date"),
+                @Index(name = "idx_attendance_student_date", columnList = "student_id, date")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_student_course_date",
+                columnNames = {"student_id", "course_id", "date"}))
 public class Attendance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,9 +3,12 @@ package com.example.academictracker.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
 @Table(name = "courses")
+// Soft-deleted courses stay invisible to every JPA query until CoursePurgeService removes them
+@SQLRestriction("deleted_at IS NULL")
 public class Course {
 
     @Id
@@ -7,7 +7,11 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "marks")
+@Table(name = "marks",
+        indexes = {
+                @Index(name = "idx_marks_student_course", columnList = "student_id, course_id"),
+                @Index(name = "idx_marks_course_score", columnList = "course_id, score")
+        })
 public class Marks {
 
     @Id
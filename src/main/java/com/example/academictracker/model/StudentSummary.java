@@ -0,0 +1,55 @@
+package com.example.academictracker.model;
+
+import jakarta.persistence.*;
+
+// Running attendance and marks totals for one student in one course. Written only through
+// StudentSummaryRepository's delta updates (and the rebuild), never loaded and saved as an entity.
+@Entity
+@Table(name = "student_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_student_summary_student_course",
+                columnNames = {"student_id", "course_id"}))
+public class StudentSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private User student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @Column(name = "attendance_present", nullable = false)
+    private long attendancePresent;
+
+    @Column(name = "attendance_total", nullable = false)
+    private long attendanceTotal;
+
+    @Column(name = "marks_count", nullable = false)
+    private long marksCount;
+
+    @Column(name = "marks_sum", nullable = false)
+    private double marksSum;
+
+    @Column(name = "marks_min")
+    private Double marksMin;
+
+    @Column(name = "marks_max")
+    private Double marksMax;
+
+    public StudentSummary() {}
+
+    // Getters
+    public Long getId() { return id; }
+    public User getStudent() { return student; }
+    public Course getCourse() { return course; }
+    public long getAttendancePresent() { return attendancePresent; }
+    public long getAttendanceTotal() { return attendanceTotal; }
+    public long getMarksCount() { return marksCount; }
+    public double getMarksSum() { return marksSum; }
+    public Double getMarksMin() { return marksMin; }
+    public Double getMarksMax() { return marksMax; }
+}
@@ -0,0 +1,13 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.model.Attendance;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AttendanceFilterRepository {
+
+    // Keyset page of rows matching the specification, selected as DTOs in one query
+    List<AttendanceRowDTO> findRows(Specification<Attendance> filter, long afterId, int limit);
+}
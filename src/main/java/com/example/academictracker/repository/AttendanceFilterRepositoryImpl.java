@@ -0,0 +1,35 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.model.Attendance;
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class AttendanceFilterRepositoryImpl implements AttendanceFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AttendanceRowDTO> findRows(Specification<Attendance> filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AttendanceRowDTO> query = cb.createQuery(AttendanceRowDTO.class);
+        Root<Attendance> a = query.from(Attendance.class);
+        Join<Attendance, User> s = FilterSpecifications.student(a);
+        Join<Attendance, Course> c = FilterSpecifications.course(a);
+
+        Predicate where = cb.gt(a.get("id"), afterId);
+        Predicate filtered = filter.toPredicate(a, query, cb);
+        query.select(cb.construct(AttendanceRowDTO.class, a.get("id"), s.get("id"), s.get("name"),
+                        c.get("id"), c.get("name"), a.get("date"), a.get("present"), a.get("remarks")))
+                .where(filtered == null ? where : cb.and(filtered, where))
+                .orderBy(cb.asc(a.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,19 +1,139 @@
 package com.example.academictracker.repository;
 
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.AttendanceStatsDTO;
 import com.example.academictracker.model.Attendance;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceFilterRepository {
     List<Attendance> findByStudent(User student);
     List<Attendance> findByCourse(Course course);
     List<Attendance> findByDate(LocalDate date);
-    void deleteByStudent(User student);
-    void deleteByCourse(Course course);
+
+    @EntityGraph(attributePaths = {"student", "course"})
+    Optional<Attendance> findByStudentIdAndCourseIdAndDate(Long studentId, Long courseId, LocalDate date);
+
+    // Stored present flag for a day, read before an upsert to work out the summary delta
+    @Query("SELECT a.present FROM Attendance a "
+            + "WHERE a.student.id = :studentId AND a.course.id = :courseId AND a.date = :date")
+    Optional<Boolean> findPresentByStudentIdAndCourseIdAndDate(@Param("studentId") Long studentId,
+                                                               @Param("courseId") Long courseId,
+                                                               @Param("date") LocalDate date);
+
+    interface PresentState {
+        Long getStudentId();
+        Boolean getPresent();
+    }
+
+    @Query("SELECT a.student.id AS studentId, a.present AS present FROM Attendance a "
+            + "WHERE a.course.id = :courseId AND a.date = :date AND a.student.id IN :studentIds")
+    List<PresentState> findPresentStates(@Param("courseId") Long courseId, @Param("date") LocalDate date,
+                                         @Param("studentIds") Collection<Long> studentIds);
+
+    interface DayMark {
+        LocalDate getDate();
+        Long getStudentId();
+        Boolean getPresent();
+    }
+
+    // Every mark of one course, enough to build its absence bitmaps (served by idx_attendance_course_date)
+    @Query("SELECT a.date AS date, a.student.id AS studentId, a.present AS present FROM Attendance a "
+            + "WHERE a.course.id = :courseId")
+    List<DayMark> findDayMarksByCourseId(@Param("courseId") Long courseId);
+
+    // Idempotent mark against uk_attendance_student_course_date: a retry updates instead of duplicating
+    String UPSERT_SQL = "INSERT INTO attendances (student_id, course_id, date, present, remarks) "
+            + "VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE present = VALUES(present), remarks = VALUES(remarks)";
+
+    @Modifying
+    @Query(value = UPSERT_SQL, nativeQuery = true)
+    int upsert(Long studentId, Long courseId, LocalDate date, boolean present, String remarks);
+
+    // Read paths that load student, course and course teacher in the same query
+    @EntityGraph(attributePaths = {"student", "course", "course.teacher"})
+    @ReadOnlyQuery
+    List<Attendance> findWithDetailsByStudent(User student);
+
+    @EntityGraph(attributePaths = {"student", "course", "course.teacher"})
+    @ReadOnlyQuery
+    List<Attendance> findWithDetailsByCourse(Course course);
+
+    @EntityGraph(attributePaths = {"student", "course", "course.teacher"})
+    @ReadOnlyQuery
+    List<Attendance> findWithDetailsByDate(LocalDate date);
+
+    String ROW_SELECT = "select new com.example.academictracker.dto.AttendanceRowDTO("
+            + "a.id, s.id, s.name, c.id, c.name, a.date, a.present, a.remarks) "
+            + "from Attendance a join a.student s join a.course c ";
+
+    @Query(ROW_SELECT + "where s.id = :studentId order by a.id")
+    List<AttendanceRowDTO> findRowsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(ROW_SELECT + "where c.id = :courseId order by a.id")
+    List<AttendanceRowDTO> findRowsByCourseId(@Param("courseId") Long courseId);
+
+    @Query(ROW_SELECT + "where a.date = :date order by a.id")
+    List<AttendanceRowDTO> findRowsByDate(@Param("date") LocalDate date);
+
+    // Keyset pages: rows after the given id, in id order
+    @Query(ROW_SELECT + "where c.id = :courseId and a.id > :afterId order by a.id")
+    List<AttendanceRowDTO> findRowsByCourseIdAfter(@Param("courseId") Long courseId, @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    @Query(ROW_SELECT + "where a.date = :date and a.id > :afterId order by a.id")
+    List<AttendanceRowDTO> findRowsByDateAfter(@Param("date") LocalDate date, @Param("afterId") Long afterId,
+                                               Limit limit);
+
+    // Forward-only streams; callers must consume them inside a transaction and close them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "where c.id = :courseId order by a.id")
+    Stream<AttendanceRowDTO> streamRowsByCourseId(@Param("courseId") Long courseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "where a.date = :date order by a.id")
+    Stream<AttendanceRowDTO> streamRowsByDate(@Param("date") LocalDate date);
+
+    // Present/total counts per (student, course), computed with GROUP BY
+    String STATS_SELECT = "select new com.example.academictracker.dto.AttendanceStatsDTO("
+            + "s.id, s.name, c.id, c.name, sum(case when a.present = true then 1 else 0 end), count(a)) "
+            + "from Attendance a join a.student s join a.course c ";
+
+    @Query(STATS_SELECT + "where s.id = :studentId group by s.id, s.name, c.id, c.name order by c.id")
+    List<AttendanceStatsDTO> findStatsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(STATS_SELECT + "where c.id = :courseId group by s.id, s.name, c.id, c.name order by s.id")
+    List<AttendanceStatsDTO> findStatsByCourseId(@Param("courseId") Long courseId);
+
+    // Set-based deletes: one statement instead of loading and removing each entity
+    @Modifying
+    @Query("DELETE FROM Attendance x WHERE x.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("DELETE FROM Attendance x WHERE x.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    // One purge step for a soft-deleted course, keeping each transaction and its undo log small
+    @Modifying
+    @Query(value = "DELETE FROM attendances WHERE course_id = :courseId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByCourseId(@Param("courseId") Long courseId, @Param("limit") int limit);
 }
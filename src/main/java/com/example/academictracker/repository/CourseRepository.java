@@ -1,9 +1,61 @@
 package com.example.academictracker.repository;
 
+import com.example.academictracker.dto.CourseRowDTO;
 import com.example.academictracker.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    @EntityGraph(attributePaths = "teacher")
+    @ReadOnlyQuery
+    Optional<Course> findWithTeacherById(Long id);
+
+    @Query("select c.id from Course c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id from Course c where c.section = :section")
+    List<Long> findIdsBySection(@Param("section") String section);
+
+    String ROW_SELECT = "select new com.example.academictracker.dto.CourseRowDTO(c.id, c.name, c.section, t.id, t.name) "
+            + "from Course c left join c.teacher t ";
+
+    @Query(ROW_SELECT + "order by c.id")
+    List<CourseRowDTO> findAllRows();
+
+    // Keyset page: rows after the given id, in id order
+    @Query(ROW_SELECT + "where c.id > :afterId order by c.id")
+    List<CourseRowDTO> findAllRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Forward-only stream; callers must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "order by c.id")
+    Stream<CourseRowDTO> streamAllRows();
+
+    // Soft delete; native so they see rows hidden by the deleted_at restriction on Course
+    @Modifying
+    @Query(value = "UPDATE courses SET deleted_at = CURRENT_TIMESTAMP WHERE id = :id AND deleted_at IS NULL",
+            nativeQuery = true)
+    int markDeleted(@Param("id") Long id);
+
+    @Query(value = "SELECT id FROM courses WHERE deleted_at IS NOT NULL ORDER BY id", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    @Modifying
+    @Query(value = "DELETE FROM courses WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
 }
@@ -0,0 +1,76 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.User;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Predicates for the attendance and marks filter endpoints. Each one returns null when its value is
+// absent, so callers can combine them with Specification.allOf and only the given filters reach SQL.
+// Student and course conditions reuse the row query's inner joins instead of adding their own.
+public final class FilterSpecifications {
+
+    private FilterSpecifications() {}
+
+    public static <T> Specification<T> studentId(Long studentId) {
+        return studentId == null ? null : (root, query, cb) -> cb.equal(join(root, "student").get("id"), studentId);
+    }
+
+    public static <T> Specification<T> courseId(Long courseId) {
+        return courseId == null ? null : (root, query, cb) -> cb.equal(join(root, "course").get("id"), courseId);
+    }
+
+    public static <T> Specification<T> section(String section) {
+        return section == null ? null : (root, query, cb) -> cb.equal(join(root, "course").get("section"), section);
+    }
+
+    // Compares the courses.teacher_id foreign key, no join to users
+    public static <T> Specification<T> teacherId(Long teacherId) {
+        return teacherId == null ? null
+                : (root, query, cb) -> cb.equal(join(root, "course").get("teacher").get("id"), teacherId);
+    }
+
+    public static <T> Specification<T> dateFrom(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static <T> Specification<T> dateTo(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), to);
+    }
+
+    public static <T> Specification<T> present(Boolean present) {
+        return present == null ? null : (root, query, cb) -> cb.equal(root.get("present"), present);
+    }
+
+    public static <T> Specification<T> scoreAtLeast(Double min) {
+        return min == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("score"), min);
+    }
+
+    public static <T> Specification<T> scoreAtMost(Double max) {
+        return max == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("score"), max);
+    }
+
+    // The existing inner join on the association, created if the query has none yet
+    @SuppressWarnings("unchecked")
+    static <T, J> Join<T, J> join(From<?, T> from, String attribute) {
+        for (Join<T, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.INNER) {
+                return (Join<T, J>) join;
+            }
+        }
+        return from.join(attribute);
+    }
+
+    // Typed accessors for the row queries
+    static <T> Join<T, User> student(From<?, T> from) {
+        return join(from, "student");
+    }
+
+    static <T> Join<T, Course> course(From<?, T> from) {
+        return join(from, "course");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.model.Marks;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MarksFilterRepository {
+
+    // Keyset page of rows matching the specification, selected as DTOs in one query
+    List<MarksRowDTO> findRows(Specification<Marks> filter, long afterId, int limit);
+}
@@ -0,0 +1,35 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.Marks;
+import com.example.academictracker.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+class MarksFilterRepositoryImpl implements MarksFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MarksRowDTO> findRows(Specification<Marks> filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MarksRowDTO> query = cb.createQuery(MarksRowDTO.class);
+        Root<Marks> m = query.from(Marks.class);
+        Join<Marks, User> s = FilterSpecifications.student(m);
+        Join<Marks, Course> c = FilterSpecifications.course(m);
+
+        Predicate where = cb.gt(m.get("id"), afterId);
+        Predicate filtered = filter.toPredicate(m, query, cb);
+        query.select(cb.construct(MarksRowDTO.class, m.get("id"), s.get("id"), s.get("name"),
+                        c.get("id"), c.get("name"), m.get("score")))
+                .where(filtered == null ? where : cb.and(filtered, where))
+                .orderBy(cb.asc(m.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,17 +1,87 @@
 package com.example.academictracker.repository;
 
+import com.example.academictracker.dto.MarksRowDTO;
 import com.example.academictracker.model.Marks;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface MarksRepository extends JpaRepository<Marks, Long> {
+public interface MarksRepository extends JpaRepository<Marks, Long>, MarksFilterRepository {
     List<Marks> findByStudent(User student);
     List<Marks> findByCourse(Course course);
-    void deleteByStudent(User student);
-    void deleteByCourse(Course course);
+
+    // Read paths that load student, course and course teacher in the same query
+    @EntityGraph(attributePaths = {"student", "course", "course.teacher"})
+    @ReadOnlyQuery
+    List<Marks> findWithDetailsByStudent(User student);
+
+    @EntityGraph(attributePaths = {"student", "course", "course.teacher"})
+    @ReadOnlyQuery
+    List<Marks> findWithDetailsByCourse(Course course);
+
+    String ROW_SELECT = "select new com.example.academictracker.dto.MarksRowDTO("
+            + "m.id, s.id, s.name, c.id, c.name, m.score) "
+            + "from Marks m join m.student s join m.course c ";
+
+    @Query(ROW_SELECT + "where s.id = :studentId order by m.id")
+    List<MarksRowDTO> findRowsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(ROW_SELECT + "where c.id = :courseId order by m.id")
+    List<MarksRowDTO> findRowsByCourseId(@Param("courseId") Long courseId);
+
+    // Keyset page: rows after the given id, in id order
+    @Query(ROW_SELECT + "where c.id = :courseId and m.id > :afterId order by m.id")
+    List<MarksRowDTO> findRowsByCourseIdAfter(@Param("courseId") Long courseId, @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    // Forward-only stream; callers must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "where c.id = :courseId order by m.id")
+    Stream<MarksRowDTO> streamRowsByCourseId(@Param("courseId") Long courseId);
+
+    interface ScoreSummary {
+        long getCount();
+        Double getMin();
+        Double getMax();
+        Double getMean();
+        Double getStddev();
+    }
+
+    @Query(value = "SELECT COUNT(score) AS count, MIN(score) AS min, MAX(score) AS max, AVG(score) AS mean, "
+            + "STDDEV_POP(score) AS stddev FROM marks WHERE course_id = :courseId", nativeQuery = true)
+    ScoreSummary summarizeScoresByCourseId(@Param("courseId") Long courseId);
+
+    // Average of the middle one or two scores, ranked with window functions
+    @Query(value = "SELECT AVG(t.score) FROM ("
+            + "SELECT score, ROW_NUMBER() OVER (ORDER BY score) AS rn, COUNT(*) OVER () AS cnt "
+            + "FROM marks WHERE course_id = :courseId) t "
+            + "WHERE t.rn IN (FLOOR((t.cnt + 1) / 2), FLOOR((t.cnt + 2) / 2))", nativeQuery = true)
+    Double findMedianScoreByCourseId(@Param("courseId") Long courseId);
+
+    // Set-based deletes: one statement instead of loading and removing each entity
+    @Modifying
+    @Query("DELETE FROM Marks x WHERE x.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("DELETE FROM Marks x WHERE x.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    // One purge step for a soft-deleted course, keeping each transaction and its undo log small
+    @Modifying
+    @Query(value = "DELETE FROM marks WHERE course_id = :courseId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByCourseId(@Param("courseId") Long courseId, @Param("limit") int limit);
 }
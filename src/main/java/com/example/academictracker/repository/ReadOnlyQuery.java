@@ -0,0 +1,22 @@
+package com.example.academictracker.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// For entity-returning reads: entities are loaded read-only (no dirty-checking snapshot is kept)
+// and the query does not flush the session first. Read-only transactions already do both; this
+// covers callers outside one, such as lookups inside write transactions and open-in-view loads.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+})
+public @interface ReadOnlyQuery {
+}
@@ -0,0 +1,93 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.dto.StudentSummaryDTO;
+import com.example.academictracker.model.StudentSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentSummaryRepository extends JpaRepository<StudentSummary, Long> {
+
+    // Creates the (student, course) row if missing. Either way the row is now locked until commit,
+    // which serializes concurrent writers for the same student and course around their deltas.
+    String LOCK_SQL = "INSERT INTO student_summaries (student_id, course_id, attendance_present, attendance_total, "
+            + "marks_count, marks_sum) VALUES (?, ?, 0, 0, 0, 0) "
+            + "ON DUPLICATE KEY UPDATE attendance_total = attendance_total";
+
+    String ADD_ATTENDANCE_SQL = "UPDATE student_summaries "
+            + "SET attendance_present = attendance_present + ?, attendance_total = attendance_total + ? "
+            + "WHERE student_id = ? AND course_id = ?";
+
+    // Adds count/sum and widens min/max by a group of new marks (bulk imports)
+    String ADD_MARKS_SQL = "UPDATE student_summaries "
+            + "SET marks_count = marks_count + ?, marks_sum = marks_sum + ?, "
+            + "marks_min = CASE WHEN marks_min IS NULL OR marks_min > ? THEN ? ELSE marks_min END, "
+            + "marks_max = CASE WHEN marks_max IS NULL OR marks_max < ? THEN ? ELSE marks_max END "
+            + "WHERE student_id = ? AND course_id = ?";
+
+    // Same statement as the V3 migration's backfill
+    String REBUILD_SQL = "INSERT INTO student_summaries (student_id, course_id, attendance_present, attendance_total, "
+            + "marks_count, marks_sum, marks_min, marks_max) "
+            + "SELECT k.student_id, k.course_id, "
+            + "COALESCE(a.present_count, 0), COALESCE(a.total_count, 0), "
+            + "COALESCE(m.marks_count, 0), COALESCE(m.marks_sum, 0), m.marks_min, m.marks_max "
+            + "FROM (SELECT student_id, course_id FROM attendances "
+            + "UNION SELECT student_id, course_id FROM marks) k "
+            + "LEFT JOIN (SELECT student_id, course_id, "
+            + "SUM(CASE WHEN present = TRUE THEN 1 ELSE 0 END) AS present_count, COUNT(*) AS total_count "
+            + "FROM attendances GROUP BY student_id, course_id) a "
+            + "ON a.student_id = k.student_id AND a.course_id = k.course_id "
+            + "LEFT JOIN (SELECT student_id, course_id, COUNT(score) AS marks_count, SUM(score) AS marks_sum, "
+            + "MIN(score) AS marks_min, MAX(score) AS marks_max "
+            + "FROM marks GROUP BY student_id, course_id) m "
+            + "ON m.student_id = k.student_id AND m.course_id = k.course_id";
+
+    @Modifying
+    @Query(value = LOCK_SQL, nativeQuery = true)
+    int lock(Long studentId, Long courseId);
+
+    @Modifying
+    @Query(value = ADD_ATTENDANCE_SQL, nativeQuery = true)
+    int addAttendance(long presentDelta, long totalDelta, Long studentId, Long courseId);
+
+    @Modifying
+    @Query("UPDATE StudentSummary s SET s.marksCount = s.marksCount + 1, s.marksSum = s.marksSum + :score, "
+            + "s.marksMin = CASE WHEN s.marksMin IS NULL OR s.marksMin > :score THEN :score ELSE s.marksMin END, "
+            + "s.marksMax = CASE WHEN s.marksMax IS NULL OR s.marksMax < :score THEN :score ELSE s.marksMax END "
+            + "WHERE s.student.id = :studentId AND s.course.id = :courseId")
+    int addMark(@Param("studentId") Long studentId, @Param("courseId") Long courseId, @Param("score") double score);
+
+    String ROW_SELECT = "SELECT new com.example.academictracker.dto.StudentSummaryDTO("
+            + "s.student.id, s.course.id, c.name, s.attendancePresent, s.attendanceTotal, "
+            + "s.marksCount, s.marksSum, s.marksMin, s.marksMax) "
+            + "FROM StudentSummary s JOIN s.course c ";
+
+    @Query(ROW_SELECT + "WHERE s.student.id = :studentId ORDER BY c.name, c.id")
+    List<StudentSummaryDTO> findRowsByStudentId(@Param("studentId") Long studentId);
+
+    @Query(ROW_SELECT + "WHERE s.student.id = :studentId AND s.course.id = :courseId")
+    Optional<StudentSummaryDTO> findRowByStudentIdAndCourseId(@Param("studentId") Long studentId,
+                                                             @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = "DELETE FROM student_summaries", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = REBUILD_SQL, nativeQuery = true)
+    int rebuildAllRows();
+
+    @Modifying
+    @Query("DELETE FROM StudentSummary s WHERE s.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Modifying
+    @Query("DELETE FROM StudentSummary s WHERE s.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+}
@@ -1,12 +1,49 @@
 package com.example.academictracker.repository;
 
+import com.example.academictracker.dto.UserRowDTO;
+import com.example.academictracker.model.Role;
 import com.example.academictracker.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @ReadOnlyQuery
     Optional<User> findByEmail(String email);
+
+    interface EmailIdentity {
+        Long getId();
+        String getEmail();
+        Role getRole();
+    }
+
+    // Set-based lookup for imports: one query per chunk instead of one per row
+    @Query("select u.id as id, u.email as email, u.role as role from User u where u.email in :emails")
+    List<EmailIdentity> findIdentitiesByEmailIn(@Param("emails") Collection<String> emails);
+
+    String ROW_SELECT = "select new com.example.academictracker.dto.UserRowDTO(u.id, u.name, u.email, u.role) "
+            + "from User u ";
+
+    @Query(ROW_SELECT + "order by u.id")
+    List<UserRowDTO> findAllRows();
+
+    // Keyset page: rows after the given id, in id order
+    @Query(ROW_SELECT + "where u.id > :afterId order by u.id")
+    List<UserRowDTO> findAllRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Forward-only stream; callers must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(ROW_SELECT + "order by u.id")
+    Stream<UserRowDTO> streamAllRows();
 }
@@ -1,6 +1,8 @@
 package com.example.academictracker.security;
 
-import com.example.academictracker.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,6 +27,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    // jwt.filter{phase}: token extraction, signature/expiry verification and principal lookup
+    private Timer extractTimer;
+    private Timer verifyTimer;
+    private Timer lookupTimer;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.extractTimer = Timer.builder("jwt.filter").tag("phase", "extract").register(meterRegistry);
+        this.verifyTimer = Timer.builder("jwt.filter").tag("phase", "verify").register(meterRegistry);
+        this.lookupTimer = Timer.builder("jwt.filter").tag("phase", "lookup").register(meterRegistry);
+    }
+
+    // Streamed (NDJSON) responses finish on an async dispatch, which must be authenticated too
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -31,6 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = null;
         String username = null;
+        long start = System.nanoTime();
 
         // 1️⃣ Try to get JWT from Authorization header first (for Postman/API clients)
         String authHeader = request.getHeader("Authorization");
@@ -51,28 +76,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        // 3️⃣ Extract username from token
-        if (token != null) {
-            try {
-                username = jwtUtil.getUsernameFromToken(token);
-            } catch (Exception e) {
-                logger.error("Cannot extract username from JWT", e);
+        start = record(extractTimer, start);
+
+        // 3️⃣ Verify the token once and take the username from its claims
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            username = jwtUtil.parseVerifiedClaims(token)
+                    .map(Claims::getSubject)
+                    .orElse(null);
+            start = record(verifyTimer, start);
+            if (username == null) {
+                logger.debug("Rejected invalid or expired JWT");
             }
         }
 
         // 4️⃣ Authenticate user if username is valid and not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(token)) {
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(auth);
-            }
+        if (username != null) {
+            var userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
+            record(lookupTimer, start);
+
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
         }
 
         // 5️⃣ Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    private static long record(Timer timer, long start) {
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
 }
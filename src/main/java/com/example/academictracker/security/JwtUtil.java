@@ -1,5 +1,8 @@
 package com.example.academictracker.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,18 +10,33 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
 
     private final SecretKey SECRET_KEY;
     private final long EXPIRATION_MS;
+    private final JwtParser parser;
+    // Recently verified tokens, each kept until its own expiry so repeat requests skip HMAC
+    private final Cache<String, Claims> verifiedTokens;
 
     public JwtUtil(@Value("${jwt.secret}") String secret,
-                   @Value("${jwt.expiration}") long expiration) {
+                   @Value("${jwt.expiration}") long expiration,
+                   @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
         this.SECRET_KEY = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.EXPIRATION_MS = expiration;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(SECRET_KEY)
+                .build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(Expiry.creating((String token, Claims claims) -> remainingLifetime(claims)))
+                        .build()
+                : null;
     }
 
     // Generate token
@@ -31,26 +49,42 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Verify signature and expiry once and return the claims, empty if the token is invalid
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        if (verifiedTokens != null) {
+            Claims cached = verifiedTokens.getIfPresent(token);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (verifiedTokens != null && claims.getExpiration() != null) {
+                verifiedTokens.put(token, claims);
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     // Extract username/email
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     // Validate token
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseVerifiedClaims(token).isPresent();
+    }
+
+    private static Duration remainingLifetime(Claims claims) {
+        long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(millis, 0));
     }
 }
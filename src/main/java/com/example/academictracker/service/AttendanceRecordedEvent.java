@@ -0,0 +1,9 @@
+package com.example.academictracker.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Published by AttendanceService for every stored mark (one event per single or bulk call);
+// listeners that mirror attendance should use @TransactionalEventListener so they only see committed rows.
+public record AttendanceRecordedEvent(Long courseId, LocalDate date, Map<Long, Boolean> presentByStudentId) {
+}
@@ -0,0 +1,13 @@
+package com.example.academictracker.service;
+
+// All attendance of one student or one course is gone (or hidden, for a soft-deleted course)
+public record AttendanceRemovedEvent(Long studentId, Long courseId) {
+
+    public static AttendanceRemovedEvent forStudent(Long studentId) {
+        return new AttendanceRemovedEvent(studentId, null);
+    }
+
+    public static AttendanceRemovedEvent forCourse(Long courseId) {
+        return new AttendanceRemovedEvent(null, courseId);
+    }
+}
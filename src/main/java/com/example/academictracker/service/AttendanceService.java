@@ -1,16 +1,44 @@
 package com.example.academictracker.service;
 
+import com.example.academictracker.analytics.AbsenceBitmapIndex;
+import com.example.academictracker.dto.AttendanceFilterDTO;
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.AttendanceStatsDTO;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.BulkAttendanceResultDTO;
+import com.example.academictracker.ingest.AttendanceWriteBehindQueue;
+import com.example.academictracker.ingest.PendingMark;
 import com.example.academictracker.model.Attendance;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
 import com.example.academictracker.repository.AttendanceRepository;
+import com.example.academictracker.repository.FilterSpecifications;
 import com.example.academictracker.repository.UserRepository;
 import com.example.academictracker.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Date;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AttendanceService {
@@ -24,31 +52,317 @@ public class AttendanceService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AbsenceBitmapIndex absenceBitmapIndex;
+
+    // Present only with app.attendance.write-behind.enabled=true
+    @Autowired(required = false)
+    private AttendanceWriteBehindQueue writeBehindQueue;
+
+    private static final int MAX_ABSENCE_DATES = 366;
+
+    @Value("${app.attendance.bulk-batch-size:200}")
+    private int bulkBatchSize;
+
+    public boolean isWriteBehind() {
+        return writeBehindQueue != null;
+    }
+
+    // Upserts on (student, course, date), so marking the same day twice updates the first mark.
+    // In write-behind mode the mark is only logged and the returned Attendance is unsaved (no id);
+    // AttendanceWriteBehindFlusher writes it later through storeBulkAttendance.
     public Attendance markAttendance(Attendance attendance) {
-        return attendanceRepository.save(attendance);
+        if (writeBehindQueue == null) {
+            return transactionTemplate.execute(status -> storeAttendance(attendance));
+        }
+        writeBehindQueue.append(new PendingMark(attendance.getStudent().getId(), attendance.getStudent().getName(),
+                attendance.getCourse().getId(), attendance.getCourse().getName(),
+                attendance.getDate(), attendance.isPresent(), attendance.getRemarks()));
+        changeTracker.studentChanged(ChangeTracker.Scope.STUDENT_ATTENDANCE, attendance.getStudent().getId());
+        return attendance;
+    }
+
+    private Attendance storeAttendance(Attendance attendance) {
+        Long studentId = attendance.getStudent().getId();
+        Long courseId = attendance.getCourse().getId();
+        studentSummaryService.lock(studentId, courseId);
+        Boolean previous = attendanceRepository
+                .findPresentByStudentIdAndCourseIdAndDate(studentId, courseId, attendance.getDate())
+                .orElse(null);
+        attendanceRepository.upsert(studentId, courseId, attendance.getDate(),
+                attendance.isPresent(), attendance.getRemarks());
+        studentSummaryService.recordAttendance(studentId, courseId, previous, attendance.isPresent());
+        changeTracker.studentChanged(ChangeTracker.Scope.STUDENT_ATTENDANCE, studentId);
+        eventPublisher.publishEvent(new AttendanceRecordedEvent(courseId, attendance.getDate(),
+                Map.of(studentId, attendance.isPresent())));
+        return attendanceRepository.findByStudentIdAndCourseIdAndDate(studentId, courseId, attendance.getDate())
+                .orElseThrow(() -> new IllegalStateException("Attendance not stored for student ID: " + studentId));
+    }
+
+    // Marks a whole roster for one course and date. In write-behind mode the accepted entries are
+    // logged like single marks, so a bulk write can never be overtaken by an older queued mark.
+    public List<BulkAttendanceResultDTO> markBulkAttendance(Course course, LocalDate date,
+                                                            List<BulkAttendanceDTO.Entry> entries) {
+        if (writeBehindQueue == null) {
+            return transactionTemplate.execute(status -> storeBulkAttendance(course, date, entries));
+        }
+        Map<Long, User> students = findStudents(entries);
+        List<BulkAttendanceResultDTO> results = new ArrayList<>(entries.size());
+        List<BulkAttendanceDTO.Entry> accepted = accept(entries, students, results);
+        writeBehindQueue.append(accepted.stream().map(entry -> new PendingMark(entry.getStudentId(),
+                students.get(entry.getStudentId()).getName(), course.getId(), course.getName(),
+                date, entry.isPresent(), entry.getRemarks())).toList());
+        changeTracker.studentsChanged(ChangeTracker.Scope.STUDENT_ATTENDANCE,
+                accepted.stream().map(BulkAttendanceDTO.Entry::getStudentId).toList());
+        return results;
     }
 
+    // Writes straight to the database: students are resolved in a single query and rows go out
+    // as JDBC batches, since IDENTITY ids stop Hibernate from batching. Also used by the flusher.
+    @Transactional
+    public List<BulkAttendanceResultDTO> storeBulkAttendance(Course course, LocalDate date,
+                                                             List<BulkAttendanceDTO.Entry> entries) {
+        List<BulkAttendanceResultDTO> results = new ArrayList<>(entries.size());
+        List<BulkAttendanceDTO.Entry> accepted = accept(entries, findStudents(entries), results);
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        List<Long> acceptedIds = accepted.stream().map(BulkAttendanceDTO.Entry::getStudentId).toList();
+        studentSummaryService.lockAll(course.getId(), acceptedIds);
+        Map<Long, Boolean> previous = attendanceRepository.findPresentStates(course.getId(), date, acceptedIds).stream()
+                .collect(Collectors.toMap(AttendanceRepository.PresentState::getStudentId,
+                        AttendanceRepository.PresentState::getPresent));
+
+        Date sqlDate = Date.valueOf(date);
+        jdbcTemplate.batchUpdate(AttendanceRepository.UPSERT_SQL, accepted, bulkBatchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getStudentId());
+            ps.setLong(2, course.getId());
+            ps.setDate(3, sqlDate);
+            ps.setBoolean(4, entry.isPresent());
+            ps.setString(5, entry.getRemarks());
+        });
+        studentSummaryService.recordAttendance(course.getId(), previous, accepted);
+        changeTracker.studentsChanged(ChangeTracker.Scope.STUDENT_ATTENDANCE, acceptedIds);
+        Map<Long, Boolean> present = new LinkedHashMap<>();
+        accepted.forEach(entry -> present.put(entry.getStudentId(), entry.isPresent()));
+        eventPublisher.publishEvent(new AttendanceRecordedEvent(course.getId(), date, present));
+        return results;
+    }
+
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByStudent(User student) {
-        return attendanceRepository.findByStudent(student);
+        return attendanceRepository.findWithDetailsByStudent(student);
     }
 
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByStudentId(Long studentId) {
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
-        return attendanceRepository.findByStudent(student);
+        return attendanceRepository.findWithDetailsByStudent(student);
     }
 
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByCourse(Course course) {
-        return attendanceRepository.findByCourse(course);
+        return attendanceRepository.findWithDetailsByCourse(course);
     }
 
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByCourseId(Long courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + courseId));
-        return attendanceRepository.findByCourse(course);
+        return attendanceRepository.findWithDetailsByCourse(course);
     }
 
+    @Transactional(readOnly = true)
     public List<Attendance> getAttendanceByDate(LocalDate date) {
-        return attendanceRepository.findByDate(date);
+        return attendanceRepository.findWithDetailsByDate(date);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceRowDTO> getAttendanceRowsByStudentId(Long studentId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return withPending(attendanceRepository.findRowsByStudentId(studentId),
+                mark -> mark.studentId().equals(studentId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceRowDTO> getAttendanceRowsByCourseId(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        return withPending(attendanceRepository.findRowsByCourseId(courseId),
+                mark -> mark.courseId().equals(courseId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceRowDTO> getAttendanceRowsByDate(LocalDate date) {
+        return withPending(attendanceRepository.findRowsByDate(date), mark -> mark.date().equals(date));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AttendanceRowDTO> getAttendancePageByCourseId(Long courseId, String cursor, int limit) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        int size = CursorPageDTO.checkLimit(limit);
+        List<AttendanceRowDTO> rows = attendanceRepository.findRowsByCourseIdAfter(
+                courseId, CursorPageDTO.decodeCursor(cursor), Limit.of(size + 1));
+        return CursorPageDTO.of(rows, size, AttendanceRowDTO::id);
+    }
+
+    // Any combination of filters compiles to one keyset-paged query over attendances joined to
+    // users and courses; course + date range is served by idx_attendance_course_date
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AttendanceRowDTO> filterAttendance(AttendanceFilterDTO filter, String cursor, int limit) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int size = CursorPageDTO.checkLimit(limit);
+        Specification<Attendance> spec = Specification.allOf(
+                FilterSpecifications.<Attendance>courseId(filter.courseId()),
+                FilterSpecifications.studentId(filter.studentId()),
+                FilterSpecifications.dateFrom(filter.from()),
+                FilterSpecifications.dateTo(filter.to()),
+                FilterSpecifications.present(filter.present()),
+                FilterSpecifications.section(filter.section()),
+                FilterSpecifications.teacherId(filter.teacherId()));
+        List<AttendanceRowDTO> rows = attendanceRepository.findRows(spec, CursorPageDTO.decodeCursor(cursor), size + 1);
+        return CursorPageDTO.of(rows, size, AttendanceRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AttendanceRowDTO> getAttendancePageByDate(LocalDate date, String cursor, int limit) {
+        int size = CursorPageDTO.checkLimit(limit);
+        List<AttendanceRowDTO> rows = attendanceRepository.findRowsByDateAfter(
+                date, CursorPageDTO.decodeCursor(cursor), Limit.of(size + 1));
+        return CursorPageDTO.of(rows, size, AttendanceRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAttendanceByCourseId(Long courseId, Consumer<AttendanceRowDTO> sink) {
+        try (Stream<AttendanceRowDTO> rows = attendanceRepository.streamRowsByCourseId(courseId)) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAttendanceByDate(LocalDate date, Consumer<AttendanceRowDTO> sink) {
+        try (Stream<AttendanceRowDTO> rows = attendanceRepository.streamRowsByDate(date)) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceStatsDTO> getAttendanceStatsByStudentId(Long studentId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return attendanceRepository.findStatsByStudentId(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttendanceStatsDTO> getAttendanceStatsByCourseId(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        return attendanceRepository.findStatsByCourseId(courseId);
+    }
+
+    // Answered from the per-course absence bitmaps rather than attendance rows. Not transactional on
+    // purpose: the index loads a course from the primary on first use. Marks still in the write-behind
+    // queue are not included until they are flushed.
+    public List<Long> getStudentsAbsentOn(Course course, List<LocalDate> dates, boolean onAll) {
+        if (dates.isEmpty()) {
+            throw new IllegalArgumentException("At least one date is required");
+        }
+        if (dates.size() > MAX_ABSENCE_DATES) {
+            throw new IllegalArgumentException("At most " + MAX_ABSENCE_DATES + " dates are allowed");
+        }
+        return onAll
+                ? absenceBitmapIndex.absentOnAll(course.getId(), dates)
+                : absenceBitmapIndex.absentOnAny(course.getId(), dates);
+    }
+
+    // Students absent on at least minDays consecutive class days (days attendance was taken) in the range
+    public List<Long> getStudentsWithAbsenceStreak(Course course, int minDays, LocalDate from, LocalDate to) {
+        if (minDays < 1 || minDays > MAX_ABSENCE_DATES) {
+            throw new IllegalArgumentException("minDays must be between 1 and " + MAX_ABSENCE_DATES);
+        }
+        LocalDate start = from == null ? LocalDate.MIN : from;
+        LocalDate end = to == null ? LocalDate.MAX : to;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return absenceBitmapIndex.absentStreaks(course.getId(), minDays, start, end);
+    }
+
+    private Map<Long, User> findStudents(List<BulkAttendanceDTO.Entry> entries) {
+        Set<Long> studentIds = entries.stream()
+                .map(BulkAttendanceDTO.Entry::getStudentId)
+                .collect(Collectors.toSet());
+        return userRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    // Records a result per entry and returns the ones to write: known students, first entry per student
+    private List<BulkAttendanceDTO.Entry> accept(List<BulkAttendanceDTO.Entry> entries, Map<Long, User> students,
+                                                 List<BulkAttendanceResultDTO> results) {
+        List<BulkAttendanceDTO.Entry> accepted = new ArrayList<>(entries.size());
+        Set<Long> seen = new HashSet<>();
+        for (BulkAttendanceDTO.Entry entry : entries) {
+            Long studentId = entry.getStudentId();
+            if (!students.containsKey(studentId)) {
+                results.add(BulkAttendanceResultDTO.failed(studentId, "Student not found with ID: " + studentId));
+            } else if (!seen.add(studentId)) {
+                results.add(BulkAttendanceResultDTO.failed(studentId, "Duplicate entry for student ID: " + studentId));
+            } else {
+                accepted.add(entry);
+                results.add(BulkAttendanceResultDTO.marked(studentId));
+            }
+        }
+        return accepted;
+    }
+
+    // Overlays marks still waiting in the write-behind queue so callers read their own writes:
+    // a pending mark replaces the stored row for its (student, course, date) or is appended with a null id.
+    // Only the plain row lists do this; pages, filters, streams and stats show flushed data.
+    private List<AttendanceRowDTO> withPending(List<AttendanceRowDTO> rows, Predicate<PendingMark> filter) {
+        if (writeBehindQueue == null) {
+            return rows;
+        }
+        List<PendingMark> pending = writeBehindQueue.unflushed(filter);
+        if (pending.isEmpty()) {
+            return rows;
+        }
+        Map<PendingMark.Key, PendingMark> byKey = new LinkedHashMap<>();
+        pending.forEach(mark -> byKey.put(mark.key(), mark));
+        List<AttendanceRowDTO> merged = new ArrayList<>(rows.size() + pending.size());
+        for (AttendanceRowDTO row : rows) {
+            PendingMark mark = byKey.remove(new PendingMark.Key(row.studentId(), row.courseId(), row.date()));
+            merged.add(mark == null ? row : new AttendanceRowDTO(row.id(), row.studentId(), row.studentName(),
+                    row.courseId(), row.courseName(), row.date(), mark.present(), mark.remarks()));
+        }
+        byKey.values().forEach(mark -> merged.add(new AttendanceRowDTO(null, mark.studentId(), mark.studentName(),
+                mark.courseId(), mark.courseName(), mark.date(), mark.present(), mark.remarks())));
+        return merged;
     }
 }
@@ -0,0 +1,90 @@
+package com.example.academictracker.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory change counters behind the ETags of the polled read endpoints. Writers bump a counter
+// after their transaction commits, so an ETag is never issued for data a reader could not see yet.
+// The epoch makes ETags from a previous run never match.
+// Assumes a single application instance: counters are per process, so a write served by another
+// instance does not change this one's tags, and it would keep answering 304 with stale data.
+@Component
+public class ChangeTracker {
+
+    public enum Scope { COURSE_CATALOG, STUDENT_ATTENDANCE, STUDENT_MARKS }
+
+    private record Key(Scope scope, long id) {}
+
+    private record Version(long count, long changedAtMillis) {}
+
+    private static final Key CATALOG = new Key(Scope.COURSE_CATALOG, 0);
+    private static final Version INITIAL = new Version(0, 0);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Key, Version> versions = new ConcurrentHashMap<>();
+    private final long settleMillis;
+
+    // With a read replica a reader may still see the old rows for up to the allowed lag after a
+    // change. Tags issued in that window are marked unsettled, so they stop matching once it passes.
+    public ChangeTracker(@Value("${app.datasource.replica.url:}") String replicaUrl,
+                         @Value("${app.datasource.replica.max-lag-seconds:5}") long maxLagSeconds) {
+        this.settleMillis = replicaUrl.isEmpty() ? 0 : maxLagSeconds * 1000;
+    }
+
+    public void courseCatalogChanged() {
+        afterCommit(List.of(CATALOG));
+    }
+
+    public void studentChanged(Scope scope, Long studentId) {
+        afterCommit(List.of(new Key(scope, studentId)));
+    }
+
+    public void studentsChanged(Scope scope, Collection<Long> studentIds) {
+        afterCommit(studentIds.stream().distinct().map(id -> new Key(scope, id)).toList());
+    }
+
+    // Per-student lists also carry course names, so their tag includes the catalog version.
+    // Weak, since Tomcat only gzips responses without a strong ETag.
+    public String etag(Scope scope, Long id) {
+        Version catalog = versions.getOrDefault(CATALOG, INITIAL);
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch).append('-').append(catalog.count());
+        boolean settled = isSettled(catalog);
+        if (scope != Scope.COURSE_CATALOG) {
+            Version version = versions.getOrDefault(new Key(scope, id), INITIAL);
+            tag.append('-').append(version.count());
+            settled &= isSettled(version);
+        }
+        return tag.append(settled ? "\"" : "-u\"").toString();
+    }
+
+    private boolean isSettled(Version version) {
+        return settleMillis == 0 || System.currentTimeMillis() - version.changedAtMillis() >= settleMillis;
+    }
+
+    private void afterCommit(List<Key> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(keys);
+            }
+        });
+    }
+
+    private void bump(List<Key> keys) {
+        long now = System.currentTimeMillis();
+        for (Key key : keys) {
+            versions.merge(key, new Version(1, now), (old, next) -> new Version(old.count() + 1, now));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.academictracker.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Evicts the course caches once the surrounding transaction commits. Evicting earlier would let a
+// concurrent read re-cache the old rows for the whole TTL. Call it before ChangeTracker so the cache
+// is cleared before the new ETag is issued.
+@Component
+public class CourseCacheEvictor {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void courseChanged(Long courseId) {
+        afterCommit(() -> {
+            evict(CourseService.COURSES_CACHE, courseId);
+            clear(CourseService.COURSE_CATALOG_CACHE);
+        });
+    }
+
+    public void catalogChanged() {
+        afterCommit(() -> clear(CourseService.COURSE_CATALOG_CACHE));
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.dto.DeletionReportDTO;
+import com.example.academictracker.repository.AttendanceRepository;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.MarksRepository;
+import com.example.academictracker.repository.StudentSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+// Background removal of soft-deleted courses. Marks and attendances go in chunks of
+// app.course.purge-batch-size rows, each in its own short transaction, so deleting a large course
+// never holds locks for long. Courses left half-purged by a restart are picked up by the sweep.
+@Service
+public class CoursePurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoursePurgeService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MarksRepository marksRepository;
+
+    @Autowired
+    private StudentSummaryRepository studentSummaryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.course.purge-batch-size:5000}")
+    private int batchSize;
+
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    // Hides the course from every JPA read and write; false if it does not exist or is already deleted
+    @Transactional
+    public boolean markDeleted(Long courseId) {
+        return courseRepository.markDeleted(courseId) == 1;
+    }
+
+    public void purgeAsync(Long courseId) {
+        taskExecutor.execute(() -> purge(courseId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.course.purge-sweep-ms:60000}")
+    public void purgePending() {
+        courseRepository.findDeletedIds().forEach(this::purge);
+    }
+
+    public DeletionReportDTO purge(Long courseId) {
+        if (!running.add(courseId)) {
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            long marks = deleteInChunks("marks", () -> marksRepository.deleteChunkByCourseId(courseId, batchSize));
+            long attendances = deleteInChunks("attendances",
+                    () -> attendanceRepository.deleteChunkByCourseId(courseId, batchSize));
+            // Summaries last and together with the course row, so a concurrent rebuild cannot
+            // leave a summary pointing at a course that no longer exists
+            long summaries = transactionTemplate.execute(status -> {
+                int deleted = studentSummaryRepository.deleteByCourseId(courseId);
+                courseRepository.purgeDeleted(courseId);
+                return deleted;
+            });
+            meterRegistry.counter("course.purge.rows", "table", "student_summaries").increment(summaries);
+            log.info("Purged course {}: {} attendances, {} marks, {} summaries in {} ms", courseId,
+                    attendances, marks, summaries, (System.nanoTime() - start) / 1_000_000);
+            return new DeletionReportDTO("course", courseId, DeletionReportDTO.Status.DELETED,
+                    attendances, marks, summaries);
+        } catch (RuntimeException e) {
+            log.warn("Purge of course {} failed, will retry on the next sweep", courseId, e);
+            return null;
+        } finally {
+            running.remove(courseId);
+        }
+    }
+
+    private long deleteInChunks(String table, IntSupplier deleteChunk) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk.getAsInt());
+            total += deleted;
+        } while (deleted == batchSize);
+        meterRegistry.counter("course.purge.rows", "table", table).increment(total);
+        return total;
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.academictracker.service;
 
+import com.example.academictracker.dto.CourseRowDTO;
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.DeletionReportDTO;
 import com.example.academictracker.model.Course;
 import com.example.academictracker.repository.CourseRepository;
 import com.example.academictracker.repository.AttendanceRepository;
 import com.example.academictracker.repository.MarksRepository;
+import com.example.academictracker.repository.StudentSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CourseService {
 
+    // Bounded by spring.cache.caffeine.spec; hit rate is exported as cache.gets and
+    // the time spent loading on a miss as course.cache.load
+    public static final String COURSES_CACHE = "courses";
+    public static final String COURSE_CATALOG_CACHE = "courseCatalog";
+
     @Autowired
     private CourseRepository courseRepository;
 
@@ -22,29 +38,102 @@ public class CourseService {
     @Autowired
     private MarksRepository marksRepository;
 
+    @Autowired
+    private StudentSummaryRepository studentSummaryRepository;
+
+    @Autowired
+    private CoursePurgeService coursePurgeService;
+
+    @Autowired
+    private CourseCacheEvictor courseCacheEvictor;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @CacheEvict(cacheNames = COURSE_CATALOG_CACHE, allEntries = true)
     public Course addCourse(Course course) {
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        changeTracker.courseCatalogChanged();
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Long> getCourseIdsBySection(String section) {
+        List<Long> ids = courseRepository.findIdsBySection(section);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("No courses found in section: " + section);
+        }
+        return ids;
+    }
+
+    // Cached reads stay on the primary: a lagging replica would pin a stale entry for the whole TTL
+    @Cacheable(cacheNames = COURSE_CATALOG_CACHE, key = "'all'", sync = true)
+    public List<CourseRowDTO> getAllCourseRows() {
+        return meterRegistry.timer("course.cache.load", "cache", COURSE_CATALOG_CACHE)
+                .record(() -> List.copyOf(courseRepository.findAllRows()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CourseRowDTO> getCoursesPage(String cursor, int limit) {
+        int size = CursorPageDTO.checkLimit(limit);
+        List<CourseRowDTO> rows = courseRepository.findAllRowsAfter(CursorPageDTO.decodeCursor(cursor), Limit.of(size + 1));
+        return CursorPageDTO.of(rows, size, CourseRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllCourses(Consumer<CourseRowDTO> sink) {
+        try (Stream<CourseRowDTO> rows = courseRepository.streamAllRows()) {
+            rows.forEach(sink);
+        }
+    }
+
+    // The teacher is fetched eagerly so the cached, detached Course can still be serialized
+    @Cacheable(cacheNames = COURSES_CACHE, key = "#id", sync = true)
     public Course getCourseById(Long id) {
-        return courseRepository.findById(id)
+        return meterRegistry.timer("course.cache.load", "cache", COURSES_CACHE)
+                .record(() -> courseRepository.findWithTeacherById(id))
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
     }
 
     @Transactional
-    public void deleteCourse(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + id));
-        
-        // Delete related records first
-        attendanceRepository.deleteByCourse(course);
-        marksRepository.deleteByCourse(course);
-        
+    public DeletionReportDTO deleteCourse(Long id) {
+        if (!courseRepository.existsById(id)) {
+            throw new IllegalArgumentException("Course not found with ID: " + id);
+        }
+
+        // Delete related records first, one statement per table
+        long attendances = attendanceRepository.deleteByCourseId(id);
+        long marks = marksRepository.deleteByCourseId(id);
+        long summaries = studentSummaryRepository.deleteByCourseId(id);
+
         // Now delete the course
         courseRepository.deleteById(id);
+        courseCacheEvictor.courseChanged(id);
+        changeTracker.courseCatalogChanged();
+        eventPublisher.publishEvent(AttendanceRemovedEvent.forCourse(id));
+        return new DeletionReportDTO("course", id, DeletionReportDTO.Status.DELETED, attendances, marks, summaries);
+    }
+
+    // For courses too large to delete in one transaction: hide the course now, purge its rows in the background
+    public DeletionReportDTO scheduleCourseDeletion(Long id) {
+        if (!coursePurgeService.markDeleted(id)) {
+            throw new IllegalArgumentException("Course not found with ID: " + id);
+        }
+        courseCacheEvictor.courseChanged(id);
+        changeTracker.courseCatalogChanged();
+        eventPublisher.publishEvent(AttendanceRemovedEvent.forCourse(id));
+        coursePurgeService.purgeAsync(id);
+        return DeletionReportDTO.purging("course", id);
     }
 }
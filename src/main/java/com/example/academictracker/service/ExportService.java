@@ -0,0 +1,67 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.export.TabularWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Term registers for spreadsheet export, read through a forward-only JDBC cursor and handed to the
+// writer row by row. With useCursorFetch=true MySQL sends fetchSize rows at a time, so memory stays
+// flat however many rows the course has.
+@Service
+public class ExportService {
+
+    private static final String ATTENDANCE_SQL = "SELECT a.date, s.id, s.name, a.present, a.remarks "
+            + "FROM attendances a JOIN users s ON s.id = a.student_id "
+            + "WHERE a.course_id = ? ORDER BY a.date, s.name, s.id";
+
+    private static final String MARKS_SQL = "SELECT s.id, s.name, m.score "
+            + "FROM marks m JOIN users s ON s.id = m.student_id "
+            + "WHERE m.course_id = ? ORDER BY s.name, s.id, m.id";
+
+    private final JdbcTemplate cursorJdbcTemplate;
+
+    public ExportService(DataSource dataSource, @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAttendanceByCourseId(Long courseId, TabularWriter writer) {
+        write(() -> writer.header("Date", "Student ID", "Student", "Present", "Remarks"));
+        RowCallbackHandler rows = rs -> {
+            Object[] values = {rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getString(3),
+                    rs.getBoolean(4), rs.getString(5)};
+            write(() -> writer.row(values));
+        };
+        cursorJdbcTemplate.query(ATTENDANCE_SQL, rows, courseId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportMarksByCourseId(Long courseId, TabularWriter writer) {
+        write(() -> writer.header("Student ID", "Student", "Score"));
+        RowCallbackHandler rows = rs -> {
+            Object[] values = {rs.getLong(1), rs.getString(2), rs.getObject(3, Double.class)};
+            write(() -> writer.row(values));
+        };
+        cursorJdbcTemplate.query(MARKS_SQL, rows, courseId);
+    }
+
+    private interface WriteAction {
+        void run() throws IOException;
+    }
+
+    private static void write(WriteAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.dto.ImportReportDTO;
+import com.example.academictracker.importer.CsvRowReader;
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.Marks;
+import com.example.academictracker.model.Role;
+import com.example.academictracker.model.User;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.UserRepository;
+import com.example.academictracker.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Bulk onboarding from CSV. The upload is read one record at a time and handled in chunks of
+// app.import.batch-size rows: each chunk is validated with the entities' Bean Validation rules,
+// checked against the database with one set-based query, and written as one JDBC batch in its
+// own transaction. Rejected rows are reported with their line number and skipped.
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_COURSE_SQL =
+            "INSERT INTO courses (name, section, teacher_id) VALUES (?, ?, ?)";
+    private static final String INSERT_MARKS_SQL =
+            "INSERT INTO marks (student_id, course_id, score) VALUES (?, ?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private CourseCacheEvictor courseCacheEvictor;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    // Columns: name, email, password, role (optional, defaults to STUDENT)
+    public ImportReportDTO importUsers(InputStream csv) throws IOException {
+        Set<String> seenEmails = new HashSet<>();
+        return run("users", csv, List.of("name", "email", "password"), (row, run) -> {
+            Role role = Role.STUDENT;
+            String roleName = row.get("role");
+            if (roleName != null) {
+                try {
+                    role = Role.valueOf(roleName.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    return run.reject(row.line(), "Invalid role: " + roleName);
+                }
+            }
+            User user = new User(row.get("name"), row.get("email"), row.get("password"), role);
+            if (!run.validate(row.line(), user)) {
+                return null;
+            }
+            if (!seenEmails.add(user.getEmail().toLowerCase(Locale.ROOT))) {
+                return run.reject(row.line(), "Duplicate email in file: " + user.getEmail());
+            }
+            return user;
+        }, this::writeUsers);
+    }
+
+    // Columns: name, section, teacherEmail (optional)
+    public ImportReportDTO importCourses(InputStream csv) throws IOException {
+        return run("courses", csv, List.of("name", "section"), (row, run) -> {
+            User teacher = null;
+            if (row.get("teacherEmail") != null) {
+                teacher = new User();
+                teacher.setEmail(row.get("teacherEmail"));
+            }
+            Course course = new Course(row.get("name"), row.get("section"), teacher);
+            return run.validate(row.line(), course) ? course : null;
+        }, this::writeCourses);
+    }
+
+    // Columns: studentEmail, courseId, score
+    public ImportReportDTO importMarks(InputStream csv) throws IOException {
+        return run("marks", csv, List.of("studentEmail", "courseId", "score"), (row, run) -> {
+            Course course = new Course();
+            User student = new User();
+            student.setEmail(row.get("studentEmail"));
+            Double score;
+            try {
+                course.setId(Long.valueOf(row.get("courseId")));
+                score = row.get("score") == null ? null : Double.valueOf(row.get("score"));
+            } catch (NumberFormatException e) {
+                return run.reject(row.line(), "courseId and score must be numbers");
+            }
+            if (student.getEmail() == null) {
+                return run.reject(row.line(), "studentEmail: Student email is required");
+            }
+            Marks marks = new Marks(student, course, score);
+            return run.validate(row.line(), marks) ? marks : null;
+        }, this::writeMarks);
+    }
+
+    private int writeUsers(List<Pending<User>> chunk, ImportRun run) {
+        Set<String> registered = identities(chunk.stream().map(p -> p.value().getEmail())).keySet();
+        List<Pending<User>> accepted = new ArrayList<>(chunk.size());
+        for (Pending<User> pending : chunk) {
+            if (registered.contains(pending.value().getEmail().toLowerCase(Locale.ROOT))) {
+                run.reject(pending.line(), "Email already registered: " + pending.value().getEmail());
+            } else {
+                accepted.add(pending);
+            }
+        }
+
+        // Hashing is the slow part and needs no connection, so it happens before the transaction
+        List<String> hashes = passwordEncoder.encodeAll(accepted.stream().map(p -> p.value().getPassword()).toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).value().setPassword(hashes.get(i));
+        }
+        return insert(INSERT_USER_SQL, accepted, run, (ps, user) -> {
+            ps.setString(1, user.getName());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getPassword());
+            ps.setString(4, user.getRole().name());
+        }, null);
+    }
+
+    private int writeCourses(List<Pending<Course>> chunk, ImportRun run) {
+        Map<String, UserRepository.EmailIdentity> teachers = identities(chunk.stream()
+                .map(p -> p.value().getTeacher())
+                .filter(Objects::nonNull)
+                .map(User::getEmail));
+        List<Pending<Course>> accepted = new ArrayList<>(chunk.size());
+        for (Pending<Course> pending : chunk) {
+            User teacher = pending.value().getTeacher();
+            if (teacher != null) {
+                UserRepository.EmailIdentity identity = teachers.get(teacher.getEmail().toLowerCase(Locale.ROOT));
+                if (identity == null || identity.getRole() != Role.TEACHER) {
+                    run.reject(pending.line(), "Teacher not found: " + teacher.getEmail());
+                    continue;
+                }
+                teacher.setId(identity.getId());
+            }
+            accepted.add(pending);
+        }
+        return insert(INSERT_COURSE_SQL, accepted, run, (ps, course) -> {
+            ps.setString(1, course.getName());
+            ps.setString(2, course.getSection());
+            if (course.getTeacher() != null) {
+                ps.setLong(3, course.getTeacher().getId());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+        }, inserted -> {
+            courseCacheEvictor.catalogChanged();
+            changeTracker.courseCatalogChanged();
+        });
+    }
+
+    private int writeMarks(List<Pending<Marks>> chunk, ImportRun run) {
+        Map<String, UserRepository.EmailIdentity> students = identities(chunk.stream()
+                .map(p -> p.value().getStudent().getEmail()));
+        Set<Long> courseIds = new HashSet<>(courseRepository.findExistingIds(chunk.stream()
+                .map(p -> p.value().getCourse().getId())
+                .collect(Collectors.toSet())));
+        List<Pending<Marks>> accepted = new ArrayList<>(chunk.size());
+        for (Pending<Marks> pending : chunk) {
+            Marks marks = pending.value();
+            UserRepository.EmailIdentity identity =
+                    students.get(marks.getStudent().getEmail().toLowerCase(Locale.ROOT));
+            if (identity == null || identity.getRole() != Role.STUDENT) {
+                run.reject(pending.line(), "Student not found: " + marks.getStudent().getEmail());
+            } else if (!courseIds.contains(marks.getCourse().getId())) {
+                run.reject(pending.line(), "Course not found with ID: " + marks.getCourse().getId());
+            } else {
+                marks.getStudent().setId(identity.getId());
+                accepted.add(pending);
+            }
+        }
+        return insert(INSERT_MARKS_SQL, accepted, run, (ps, marks) -> {
+            ps.setLong(1, marks.getStudent().getId());
+            ps.setLong(2, marks.getCourse().getId());
+            ps.setDouble(3, marks.getScore());
+        }, inserted -> {
+            studentSummaryService.recordMarks(inserted);
+            changeTracker.studentsChanged(ChangeTracker.Scope.STUDENT_MARKS,
+                    inserted.stream().map(marks -> marks.getStudent().getId()).toList());
+        });
+    }
+
+    // One JDBC batch per chunk in its own transaction. If the database rejects it (e.g. an email
+    // registered concurrently), the whole chunk is reported as failed and the import moves on.
+    private <T> int insert(String sql, List<Pending<T>> accepted, ImportRun run,
+                           ParameterizedPreparedStatementSetter<T> setter,
+                           Consumer<List<T>> afterInsert) {
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+        List<T> values = accepted.stream().map(Pending::value).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(sql, values, batchSize, setter);
+                if (afterInsert != null) {
+                    afterInsert.accept(values);
+                }
+            });
+            return values.size();
+        } catch (DataIntegrityViolationException e) {
+            String reason = "Batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+            accepted.forEach(pending -> run.reject(pending.line(), reason));
+            return 0;
+        }
+    }
+
+    // Existing users for the given emails, keyed by lower-cased email
+    private Map<String, UserRepository.EmailIdentity> identities(Stream<String> emails) {
+        Set<String> distinct = emails.collect(Collectors.toSet());
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findIdentitiesByEmailIn(distinct).stream()
+                .collect(Collectors.toMap(identity -> identity.getEmail().toLowerCase(Locale.ROOT),
+                        Function.identity(), (first, second) -> first));
+    }
+
+    private <T> ImportReportDTO run(String entity, InputStream csv, List<String> requiredColumns,
+                                    RowParser<T> parser, ChunkWriter<T> writer) throws IOException {
+        ImportRun run = new ImportRun(entity);
+        try (CsvRowReader reader = new CsvRowReader(csv)) {
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : requiredColumns) {
+                if (!columns.containsKey(required.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("Missing column: " + required);
+                }
+            }
+
+            List<Pending<T>> chunk = new ArrayList<>(batchSize);
+            List<String> values;
+            while ((values = reader.next()) != null) {
+                run.rows++;
+                T parsed = parser.parse(new Row(reader.getLine(), values, columns), run);
+                if (parsed != null) {
+                    chunk.add(new Pending<>(reader.getLine(), parsed));
+                }
+                if (chunk.size() == batchSize) {
+                    run.imported += writer.write(chunk, run);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                run.imported += writer.write(chunk, run);
+            }
+        }
+        ImportReportDTO report = run.report();
+        meterRegistry.counter("import.rows", "entity", entity, "outcome", "imported").increment(report.imported());
+        meterRegistry.counter("import.rows", "entity", entity, "outcome", "failed").increment(report.failed());
+        log.info("Imported {} of {} {} rows in {} ms ({} rows/s)", report.imported(), report.rows(), entity,
+                report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private interface RowParser<T> {
+        // Returns null after recording why the row was rejected
+        T parse(Row row, ImportRun run);
+    }
+
+    private interface ChunkWriter<T> {
+        int write(List<Pending<T>> chunk, ImportRun run);
+    }
+
+    private record Pending<T>(long line, T value) {}
+
+    private record Row(long line, List<String> values, Map<String, Integer> columns) {
+        // Trimmed cell value, null when the column is absent or the cell is blank
+        String get(String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    private class ImportRun {
+        private final String entity;
+        private final long startNanos = System.nanoTime();
+        private final List<ImportReportDTO.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long failed;
+
+        ImportRun(String entity) {
+            this.entity = entity;
+        }
+
+        <T> T reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportReportDTO.RowError(line, message));
+            }
+            return null;
+        }
+
+        boolean validate(long line, Object value) {
+            Set<ConstraintViolation<Object>> violations = validator.validate(value);
+            if (violations.isEmpty()) {
+                return true;
+            }
+            reject(line, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return false;
+        }
+
+        ImportReportDTO report() {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            double rowsPerSecond = elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+            return new ImportReportDTO(entity, rows, imported, failed, elapsedNanos / 1_000_000,
+                    rowsPerSecond, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.academictracker.service;
 
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.MarksFilterDTO;
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.dto.MarksStatsDTO;
 import com.example.academictracker.model.Marks;
 import com.example.academictracker.model.User;
 import com.example.academictracker.model.Course;
+import com.example.academictracker.repository.FilterSpecifications;
 import com.example.academictracker.repository.MarksRepository;
 import com.example.academictracker.repository.UserRepository;
 import com.example.academictracker.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class MarksService {
@@ -23,27 +33,105 @@ public class MarksService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Transactional
     public Marks addMarks(Marks marks) {
-        return marksRepository.save(marks);
+        Marks saved = marksRepository.save(marks);
+        studentSummaryService.recordMark(saved.getStudent().getId(), saved.getCourse().getId(), saved.getScore());
+        changeTracker.studentChanged(ChangeTracker.Scope.STUDENT_MARKS, saved.getStudent().getId());
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Marks> getMarksByStudent(User student) {
-        return marksRepository.findByStudent(student);
+        return marksRepository.findWithDetailsByStudent(student);
     }
 
+    @Transactional(readOnly = true)
     public List<Marks> getMarksByStudentId(Long studentId) {
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found with ID: " + studentId));
-        return marksRepository.findByStudent(student);
+        return marksRepository.findWithDetailsByStudent(student);
     }
 
+    @Transactional(readOnly = true)
     public List<Marks> getMarksByCourse(Course course) {
-        return marksRepository.findByCourse(course);
+        return marksRepository.findWithDetailsByCourse(course);
     }
 
+    @Transactional(readOnly = true)
     public List<Marks> getMarksByCourseId(Long courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + courseId));
-        return marksRepository.findByCourse(course);
+        return marksRepository.findWithDetailsByCourse(course);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MarksRowDTO> getMarksRowsByStudentId(Long studentId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return marksRepository.findRowsByStudentId(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MarksRowDTO> getMarksRowsByCourseId(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        return marksRepository.findRowsByCourseId(courseId);
+    }
+
+    // Any combination of filters compiles to one keyset-paged query; course + score range is
+    // served by idx_marks_course_score
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MarksRowDTO> filterMarks(MarksFilterDTO filter, String cursor, int limit) {
+        if (filter.minScore() != null && filter.maxScore() != null && filter.minScore() > filter.maxScore()) {
+            throw new IllegalArgumentException("minScore must not be greater than maxScore");
+        }
+        int size = CursorPageDTO.checkLimit(limit);
+        Specification<Marks> spec = Specification.allOf(
+                FilterSpecifications.<Marks>courseId(filter.courseId()),
+                FilterSpecifications.studentId(filter.studentId()),
+                FilterSpecifications.scoreAtLeast(filter.minScore()),
+                FilterSpecifications.scoreAtMost(filter.maxScore()),
+                FilterSpecifications.section(filter.section()),
+                FilterSpecifications.teacherId(filter.teacherId()));
+        List<MarksRowDTO> rows = marksRepository.findRows(spec, CursorPageDTO.decodeCursor(cursor), size + 1);
+        return CursorPageDTO.of(rows, size, MarksRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MarksRowDTO> getMarksPageByCourseId(Long courseId, String cursor, int limit) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        int size = CursorPageDTO.checkLimit(limit);
+        List<MarksRowDTO> rows = marksRepository.findRowsByCourseIdAfter(
+                courseId, CursorPageDTO.decodeCursor(cursor), Limit.of(size + 1));
+        return CursorPageDTO.of(rows, size, MarksRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamMarksByCourseId(Long courseId, Consumer<MarksRowDTO> sink) {
+        try (Stream<MarksRowDTO> rows = marksRepository.streamRowsByCourseId(courseId)) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public MarksStatsDTO getMarksStatsByCourseId(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found with ID: " + courseId);
+        }
+        MarksRepository.ScoreSummary summary = marksRepository.summarizeScoresByCourseId(courseId);
+        Double median = summary.getCount() == 0 ? null : marksRepository.findMedianScoreByCourseId(courseId);
+        return new MarksStatsDTO(courseId, summary.getCount(), summary.getMin(), summary.getMax(),
+                summary.getMean(), median, summary.getStddev());
     }
 }
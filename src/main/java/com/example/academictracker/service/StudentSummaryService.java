@@ -0,0 +1,159 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.StudentSummaryDTO;
+import com.example.academictracker.model.Marks;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.StudentSummaryRepository;
+import com.example.academictracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Maintains student_summaries alongside the attendance and marks writes. The write methods join
+// the caller's transaction (MANDATORY), so a summary never commits without the rows it counts.
+@Service
+public class StudentSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSummaryService.class);
+
+    @Autowired
+    private StudentSummaryRepository studentSummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.attendance.bulk-batch-size:200}")
+    private int bulkBatchSize;
+
+    // Call before reading the state a delta is computed from
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lock(Long studentId, Long courseId) {
+        studentSummaryRepository.lock(studentId, courseId);
+    }
+
+    // Locks in student ID order so concurrent roster calls cannot deadlock each other
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockAll(Long courseId, Collection<Long> studentIds) {
+        List<Long> ordered = studentIds.stream().sorted().toList();
+        jdbcTemplate.batchUpdate(StudentSummaryRepository.LOCK_SQL, ordered, bulkBatchSize, (ps, studentId) -> {
+            ps.setLong(1, studentId);
+            ps.setLong(2, courseId);
+        });
+    }
+
+    // previous is the stored present flag before this mark, null if the day was not marked yet
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAttendance(Long studentId, Long courseId, Boolean previous, boolean present) {
+        studentSummaryRepository.addAttendance(presentDelta(previous, present), previous == null ? 1 : 0,
+                studentId, courseId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAttendance(Long courseId, Map<Long, Boolean> previousByStudent,
+                                 List<BulkAttendanceDTO.Entry> entries) {
+        jdbcTemplate.batchUpdate(StudentSummaryRepository.ADD_ATTENDANCE_SQL, entries, bulkBatchSize, (ps, entry) -> {
+            Boolean previous = previousByStudent.get(entry.getStudentId());
+            ps.setLong(1, presentDelta(previous, entry.isPresent()));
+            ps.setLong(2, previous == null ? 1 : 0);
+            ps.setLong(3, entry.getStudentId());
+            ps.setLong(4, courseId);
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMark(Long studentId, Long courseId, double score) {
+        studentSummaryRepository.lock(studentId, courseId);
+        studentSummaryRepository.addMark(studentId, courseId, score);
+    }
+
+    // Folds a batch of inserted marks into the summaries: one lock and one delta per (student, course)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMarks(Collection<Marks> marks) {
+        // Sorted by key so concurrent imports lock rows in the same order
+        Map<StudentCourse, DoubleSummaryStatistics> byStudentCourse = marks.stream()
+                .collect(Collectors.groupingBy(
+                        m -> new StudentCourse(m.getStudent().getId(), m.getCourse().getId()),
+                        TreeMap::new,
+                        Collectors.summarizingDouble(Marks::getScore)));
+        List<Map.Entry<StudentCourse, DoubleSummaryStatistics>> deltas = List.copyOf(byStudentCourse.entrySet());
+        jdbcTemplate.batchUpdate(StudentSummaryRepository.LOCK_SQL, deltas, bulkBatchSize, (ps, delta) -> {
+            ps.setLong(1, delta.getKey().studentId());
+            ps.setLong(2, delta.getKey().courseId());
+        });
+        jdbcTemplate.batchUpdate(StudentSummaryRepository.ADD_MARKS_SQL, deltas, bulkBatchSize, (ps, delta) -> {
+            DoubleSummaryStatistics stats = delta.getValue();
+            ps.setLong(1, stats.getCount());
+            ps.setDouble(2, stats.getSum());
+            ps.setDouble(3, stats.getMin());
+            ps.setDouble(4, stats.getMin());
+            ps.setDouble(5, stats.getMax());
+            ps.setDouble(6, stats.getMax());
+            ps.setLong(7, delta.getKey().studentId());
+            ps.setLong(8, delta.getKey().courseId());
+        });
+    }
+
+    public List<StudentSummaryDTO> getSummariesByStudentId(Long studentId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return studentSummaryRepository.findRowsByStudentId(studentId);
+    }
+
+    public StudentSummaryDTO getSummary(Long studentId, Long courseId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found with ID: " + studentId);
+        }
+        return studentSummaryRepository.findRowByStudentIdAndCourseId(studentId, courseId)
+                .orElseGet(() -> courseRepository.findById(courseId)
+                        .map(course -> new StudentSummaryDTO(studentId, courseId, course.getName(),
+                                0L, 0L, 0L, 0.0, null, null))
+                        .orElseThrow(() -> new IllegalArgumentException("Course not found with ID: " + courseId)));
+    }
+
+    // Recomputes every summary from attendances and marks; returns the number of rows written
+    @Transactional
+    public int rebuild() {
+        studentSummaryRepository.deleteAllRows();
+        return studentSummaryRepository.rebuildAllRows();
+    }
+
+    // Off unless app.summary.rebuild-cron is set, e.g. "0 0 3 * * *" for a nightly consistency pass
+    @Scheduled(cron = "${app.summary.rebuild-cron:-}")
+    @Transactional
+    public void scheduledRebuild() {
+        log.info("Rebuilt {} student summaries", rebuild());
+    }
+
+    private record StudentCourse(long studentId, long courseId) implements Comparable<StudentCourse> {
+        @Override
+        public int compareTo(StudentCourse other) {
+            int byStudent = Long.compare(studentId, other.studentId);
+            return byStudent != 0 ? byStudent : Long.compare(courseId, other.courseId);
+        }
+    }
+
+    private static long presentDelta(Boolean previous, boolean present) {
+        return (present ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0);
+    }
+}
@@ -1,17 +1,26 @@
 package com.example.academictracker.service;
 
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.DeletionReportDTO;
+import com.example.academictracker.dto.UserRowDTO;
 import com.example.academictracker.model.Role;
 import com.example.academictracker.model.User;
 import com.example.academictracker.repository.UserRepository;
 import com.example.academictracker.repository.AttendanceRepository;
 import com.example.academictracker.repository.MarksRepository;
+import com.example.academictracker.repository.StudentSummaryRepository;
+import com.example.academictracker.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -28,6 +37,18 @@ public class UserService {
     @Autowired
     private MarksRepository marksRepository;
 
+    @Autowired
+    private StudentSummaryRepository studentSummaryRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public User registerUser(User user) {
         // Validation
         if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
@@ -56,29 +77,56 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    // Sign-in and the lookups before writes stay on the primary so they see just-registered users
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<UserRowDTO> getAllUserRows() {
+        return userRepository.findAllRows();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserRowDTO> getUsersPage(String cursor, int limit) {
+        int size = CursorPageDTO.checkLimit(limit);
+        List<UserRowDTO> rows = userRepository.findAllRowsAfter(CursorPageDTO.decodeCursor(cursor), Limit.of(size + 1));
+        return CursorPageDTO.of(rows, size, UserRowDTO::id);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserRowDTO> sink) {
+        try (Stream<UserRowDTO> rows = userRepository.streamAllRows()) {
+            rows.forEach(sink);
+        }
+    }
+
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
     }
 
     @Transactional
-    public void deleteUser(Long id) {
+    public DeletionReportDTO deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
         
-        // Delete related records first
-        attendanceRepository.deleteByStudent(user);
-        marksRepository.deleteByStudent(user);
+        // Delete related records first, one statement per table
+        long attendances = attendanceRepository.deleteByStudentId(id);
+        long marks = marksRepository.deleteByStudentId(id);
+        long summaries = studentSummaryRepository.deleteByStudentId(id);
         
         // Now delete the user
         userRepository.deleteById(id);
+        principalCache.evict(user.getEmail());
+        changeTracker.studentChanged(ChangeTracker.Scope.STUDENT_ATTENDANCE, id);
+        eventPublisher.publishEvent(AttendanceRemovedEvent.forStudent(id));
+        changeTracker.studentChanged(ChangeTracker.Scope.STUDENT_MARKS, id);
+        return new DeletionReportDTO("user", id, DeletionReportDTO.Status.DELETED, attendances, marks, summaries);
     }
 }
@@ -0,0 +1,42 @@
+-- Baseline schema, matching what Hibernate generated from the entities under ddl-auto=update
+
+CREATE TABLE users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     ENUM('ADMIN', 'TEACHER', 'STUDENT', 'PARENT') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE courses (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    section    VARCHAR(255),
+    teacher_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_courses_teacher FOREIGN KEY (teacher_id) REFERENCES users (id)
+);
+
+CREATE TABLE attendances (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    student_id BIGINT       NOT NULL,
+    course_id  BIGINT       NOT NULL,
+    date       DATE         NOT NULL,
+    present    BIT          NOT NULL,
+    remarks    VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_attendances_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_attendances_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+
+CREATE TABLE marks (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    course_id  BIGINT NOT NULL,
+    score      DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_marks_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_marks_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
@@ -0,0 +1,23 @@
+-- One attendance row per student, course and date, plus the indexes behind the read paths
+
+-- Keep only the newest row for each (student, course, date) so the unique key can be added
+DELETE FROM attendances
+WHERE id IN (
+    SELECT id FROM (
+        SELECT older.id
+        FROM attendances older
+        JOIN attendances newer
+          ON older.student_id = newer.student_id
+         AND older.course_id = newer.course_id
+         AND older.date = newer.date
+         AND older.id < newer.id
+    ) duplicates
+);
+
+ALTER TABLE attendances
+    ADD CONSTRAINT uk_attendance_student_course_date UNIQUE (student_id, course_id, date);
+CREATE INDEX idx_attendance_course_date ON attendances (course_id, date);
+CREATE INDEX idx_attendance_student_date ON attendances (student_id, date);
+
+CREATE INDEX idx_marks_student_course ON marks (student_id, course_id);
+CREATE INDEX idx_marks_course_score ON marks (course_id, score);
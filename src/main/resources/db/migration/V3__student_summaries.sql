@@ -0,0 +1,38 @@
+-- Per (student, course) attendance and marks totals, kept up to date by the services that write
+-- attendances and marks. Filled here from the existing rows; StudentSummaryRepository.REBUILD_SQL
+-- recomputes it the same way.
+
+CREATE TABLE student_summaries (
+    id                 BIGINT NOT NULL AUTO_INCREMENT,
+    student_id         BIGINT NOT NULL,
+    course_id          BIGINT NOT NULL,
+    attendance_present BIGINT NOT NULL,
+    attendance_total   BIGINT NOT NULL,
+    marks_count        BIGINT NOT NULL,
+    marks_sum          DOUBLE NOT NULL,
+    marks_min          DOUBLE,
+    marks_max          DOUBLE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_summary_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk_student_summaries_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_student_summaries_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+
+INSERT INTO student_summaries (student_id, course_id, attendance_present, attendance_total,
+                               marks_count, marks_sum, marks_min, marks_max)
+SELECT k.student_id, k.course_id,
+       COALESCE(a.present_count, 0), COALESCE(a.total_count, 0),
+       COALESCE(m.marks_count, 0), COALESCE(m.marks_sum, 0), m.marks_min, m.marks_max
+FROM (SELECT student_id, course_id FROM attendances
+      UNION
+      SELECT student_id, course_id FROM marks) k
+LEFT JOIN (SELECT student_id, course_id,
+                  SUM(CASE WHEN present = TRUE THEN 1 ELSE 0 END) AS present_count,
+                  COUNT(*) AS total_count
+           FROM attendances GROUP BY student_id, course_id) a
+       ON a.student_id = k.student_id AND a.course_id = k.course_id
+LEFT JOIN (SELECT student_id, course_id,
+                  COUNT(score) AS marks_count, SUM(score) AS marks_sum,
+                  MIN(score) AS marks_min, MAX(score) AS marks_max
+           FROM marks GROUP BY student_id, course_id) m
+       ON m.student_id = k.student_id AND m.course_id = k.course_id;
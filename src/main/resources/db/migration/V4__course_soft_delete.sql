@@ -0,0 +1,4 @@
+-- Courses deleted asynchronously are hidden first (Course is mapped with deleted_at IS NULL) and
+-- purged in chunks afterwards by CoursePurgeService.
+
+ALTER TABLE courses ADD COLUMN deleted_at TIMESTAMP NULL;
@@ -0,0 +1,38 @@
+package com.example.academictracker;
+
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.Role;
+import com.example.academictracker.model.User;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Saved users and courses with unique names and emails for tests sharing the in-memory database.
+// The sequence is static because every Spring test context connects to the same database.
+@Component
+public class TestData {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    public User user(Role role) {
+        int n = SEQUENCE.incrementAndGet();
+        return userRepository.save(new User("User " + n, "user" + n + "@test.example.com", "password", role));
+    }
+
+    public Course course(User teacher) {
+        return course(teacher, "A");
+    }
+
+    public Course course(User teacher, String section) {
+        return courseRepository.save(new Course("Course " + SEQUENCE.incrementAndGet(), section, teacher));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.academictracker.analytics;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.model.*;
+import com.example.academictracker.service.AttendanceService;
+import com.example.academictracker.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Intersections, unions and streaks from the absence bitmaps agree with the marks, whether they were
+// stored before the course was first queried (loaded) or after (applied from events).
+@SpringBootTest
+class AbsenceBitmapIndexTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void answersFromLoadedRowsAndLaterMarks() {
+        Course course = testData.course(testData.user(Role.TEACHER));
+        User ann = testData.user(Role.STUDENT);
+        User bo = testData.user(Role.STUDENT);
+        User cy = testData.user(Role.STUDENT);
+        // Mon-Wed before the first query: ann absent all three days, bo on Mon and Wed, cy present
+        mark(course, MONDAY, ann, false, bo, false, cy, true);
+        mark(course, MONDAY.plusDays(1), ann, false, bo, true, cy, true);
+        mark(course, MONDAY.plusDays(2), ann, false, bo, false, cy, true);
+
+        List<LocalDate> monToWed = List.of(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2));
+        assertEquals(List.of(ann.getId()), attendanceService.getStudentsAbsentOn(course, monToWed, true));
+        assertEquals(List.of(ann.getId(), bo.getId()), attendanceService.getStudentsAbsentOn(course, monToWed, false));
+        assertEquals(List.of(ann.getId()), attendanceService.getStudentsWithAbsenceStreak(course, 3, null, null));
+        // A day without attendance matches nobody
+        assertEquals(List.of(), attendanceService.getStudentsAbsentOn(course, List.of(MONDAY, MONDAY.plusDays(5)), true));
+
+        // After loading: bo's Tuesday becomes an absence and a new class day extends both streaks
+        attendanceService.markAttendance(new Attendance(bo, course, MONDAY.plusDays(1), false, "Corrected"));
+        mark(course, MONDAY.plusDays(7), ann, true, bo, false, cy, false);
+        assertEquals(List.of(ann.getId(), bo.getId()), attendanceService.getStudentsAbsentOn(course, monToWed, true));
+        assertEquals(List.of(bo.getId()), attendanceService.getStudentsWithAbsenceStreak(course, 4, null, null));
+        assertEquals(List.of(ann.getId(), bo.getId()),
+                attendanceService.getStudentsWithAbsenceStreak(course, 3, null, MONDAY.plusDays(2)));
+        assertEquals(List.of(bo.getId(), cy.getId()),
+                attendanceService.getStudentsWithAbsenceStreak(course, 1, MONDAY.plusDays(7), null));
+
+        userService.deleteUser(bo.getId());
+        assertEquals(List.of(ann.getId()), attendanceService.getStudentsAbsentOn(course, monToWed, false));
+    }
+
+    @Test
+    void streaksMatchAScanOfEachStudentsDays() {
+        CourseAbsences absences = new CourseAbsences();
+        Map<Integer, TreeMap<LocalDate, Boolean>> byStudent = new HashMap<>();
+        Random random = new Random(7);
+        for (int day = 0; day < 200; day++) {
+            LocalDate date = MONDAY.plusDays(day);
+            for (int student = 1; student <= 60; student++) {
+                if (random.nextInt(10) == 0) {
+                    continue;
+                }
+                boolean present = random.nextInt(3) != 0;
+                absences.record(date, student, present);
+                byStudent.computeIfAbsent(student, s -> new TreeMap<>()).put(date, present);
+            }
+        }
+        for (int minDays = 1; minDays <= 5; minDays++) {
+            RoaringBitmap expected = new RoaringBitmap();
+            for (Map.Entry<Integer, TreeMap<LocalDate, Boolean>> student : byStudent.entrySet()) {
+                int run = 0;
+                // Class days the student has no mark for break the run, as in the index
+                for (int day = 0; day < 200; day++) {
+                    Boolean present = student.getValue().get(MONDAY.plusDays(day));
+                    run = present == null || present ? 0 : run + 1;
+                    if (run >= minDays) {
+                        expected.add(student.getKey());
+                    }
+                }
+            }
+            assertEquals(expected, absences.absentStreaks(minDays, LocalDate.MIN, LocalDate.MAX), "minDays " + minDays);
+        }
+    }
+
+    private void mark(Course course, LocalDate date, Object... studentsAndPresence) {
+        List<BulkAttendanceDTO.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < studentsAndPresence.length; i += 2) {
+            BulkAttendanceDTO.Entry entry = new BulkAttendanceDTO.Entry();
+            entry.setStudentId(((User) studentsAndPresence[i]).getId());
+            entry.setPresent((Boolean) studentsAndPresence[i + 1]);
+            entries.add(entry);
+        }
+        attendanceService.markBulkAttendance(course, date, entries);
+    }
+}
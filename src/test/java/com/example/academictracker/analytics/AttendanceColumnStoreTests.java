@@ -0,0 +1,173 @@
+package com.example.academictracker.analytics;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.AbsenceStreakDTO;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.DailyAttendanceRateDTO;
+import com.example.academictracker.dto.WeekdayAbsenceDTO;
+import com.example.academictracker.model.*;
+import com.example.academictracker.service.AttendanceRecordedEvent;
+import com.example.academictracker.service.AttendanceRemovedEvent;
+import com.example.academictracker.service.AttendanceService;
+import com.example.academictracker.service.CourseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The column store answers the same as a plain scan over (student, course, date) -> present,
+// and follows committed writes and deletions made through the services.
+@SpringBootTest(properties = "app.analytics.column-store.enabled=true")
+class AttendanceColumnStoreTests {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 6);
+
+    private record Key(long student, long course, LocalDate date) {}
+
+    @Autowired
+    private AttendanceColumnStore columnStore;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void aggregatesMatchAScanOfTheMarks() {
+        // Starts small so the columns and index are regrown several times
+        AttendanceColumnStore store = new AttendanceColumnStore(16);
+        Map<Key, Boolean> marks = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            Key key = new Key(1 + random.nextInt(300), 1 + random.nextInt(6), START.plusDays(random.nextInt(120)));
+            boolean present = random.nextInt(4) != 0;
+            marks.put(key, present);
+            store.attendanceRecorded(new AttendanceRecordedEvent(key.course(), key.date(), Map.of(key.student(), present)));
+        }
+        store.attendanceRemoved(AttendanceRemovedEvent.forStudent(7L));
+        store.attendanceRemoved(AttendanceRemovedEvent.forCourse(6L));
+        marks.keySet().removeIf(key -> key.student() == 7 || key.course() == 6);
+
+        assertEquals(marks.size(), store.rows());
+        assertEquals(expectedDaily(marks, Set.of(2L, 3L), START.plusDays(10), START.plusDays(70)),
+                store.dailyRates(List.of(2L, 3L), START.plusDays(10), START.plusDays(70)));
+        assertEquals(expectedWeekdays(marks, null, 4L), store.weekdayAbsences(null, 4L));
+        assertEquals(expectedWeekdays(marks, 12L, null), store.weekdayAbsences(12L, null));
+        assertEquals(expectedStreaks(marks, 1L), store.absenceStreaks(1L));
+        assertTrue(store.absenceStreaks(6L).isEmpty());
+    }
+
+    @Test
+    void followsCommittedWritesAndDeletions() {
+        User teacher = testData.user(Role.TEACHER);
+        User first = testData.user(Role.STUDENT);
+        User second = testData.user(Role.STUDENT);
+        Course course = testData.course(teacher);
+
+        attendanceService.markAttendance(new Attendance(first, course, START, false, null));
+        attendanceService.markAttendance(new Attendance(first, course, START, true, "Late"));
+        attendanceService.markBulkAttendance(course, START.plusDays(1), List.of(entry(first, false), entry(second, false)));
+        attendanceService.markBulkAttendance(course, START.plusDays(2), List.of(entry(first, false), entry(second, true)));
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.markAttendance(new Attendance(second, course, START.plusDays(3), false, null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(
+                new DailyAttendanceRateDTO(START, 1, 1),
+                new DailyAttendanceRateDTO(START.plusDays(1), 0, 2),
+                new DailyAttendanceRateDTO(START.plusDays(2), 1, 2)),
+                columnStore.dailyRates(List.of(course.getId()), START, START.plusDays(6)));
+        assertEquals(List.of(
+                new AbsenceStreakDTO(first.getId(), 3, 2, 2, 2),
+                new AbsenceStreakDTO(second.getId(), 2, 1, 1, 0)),
+                columnStore.absenceStreaks(course.getId()));
+
+        // A store loaded from the table agrees with the one kept up to date by events
+        AttendanceColumnStore reloaded = new AttendanceColumnStore(16);
+        reloaded.load(jdbcTemplate, 100);
+        assertEquals(columnStore.absenceStreaks(course.getId()), reloaded.absenceStreaks(course.getId()));
+
+        courseService.deleteCourse(course.getId());
+        assertTrue(columnStore.absenceStreaks(course.getId()).isEmpty());
+    }
+
+    private static List<DailyAttendanceRateDTO> expectedDaily(Map<Key, Boolean> marks, Set<Long> courses,
+                                                              LocalDate from, LocalDate to) {
+        TreeMap<LocalDate, long[]> days = new TreeMap<>();
+        marks.forEach((key, present) -> {
+            if (courses.contains(key.course()) && !key.date().isBefore(from) && !key.date().isAfter(to)) {
+                long[] counts = days.computeIfAbsent(key.date(), d -> new long[2]);
+                counts[1]++;
+                if (present) {
+                    counts[0]++;
+                }
+            }
+        });
+        return days.entrySet().stream()
+                .map(e -> new DailyAttendanceRateDTO(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .toList();
+    }
+
+    private static List<WeekdayAbsenceDTO> expectedWeekdays(Map<Key, Boolean> marks, Long student, Long course) {
+        long[] counts = new long[14];
+        marks.forEach((key, present) -> {
+            if ((student == null || key.student() == student) && (course == null || key.course() == course)) {
+                int day = key.date().getDayOfWeek().ordinal();
+                counts[day * 2 + 1]++;
+                if (!present) {
+                    counts[day * 2]++;
+                }
+            }
+        });
+        return Arrays.stream(DayOfWeek.values())
+                .map(day -> new WeekdayAbsenceDTO(day, counts[day.ordinal() * 2], counts[day.ordinal() * 2 + 1]))
+                .toList();
+    }
+
+    private static List<AbsenceStreakDTO> expectedStreaks(Map<Key, Boolean> marks, long course) {
+        TreeMap<Long, TreeMap<LocalDate, Boolean>> byStudent = new TreeMap<>();
+        marks.forEach((key, present) -> {
+            if (key.course() == course) {
+                byStudent.computeIfAbsent(key.student(), s -> new TreeMap<>()).put(key.date(), present);
+            }
+        });
+        List<AbsenceStreakDTO> streaks = new ArrayList<>();
+        byStudent.forEach((student, days) -> {
+            int absences = 0;
+            int longest = 0;
+            int current = 0;
+            for (boolean present : days.values()) {
+                current = present ? 0 : current + 1;
+                absences += present ? 0 : 1;
+                longest = Math.max(longest, current);
+            }
+            streaks.add(new AbsenceStreakDTO(student, days.size(), absences, longest, current));
+        });
+        return streaks;
+    }
+
+    private static BulkAttendanceDTO.Entry entry(User student, boolean present) {
+        BulkAttendanceDTO.Entry entry = new BulkAttendanceDTO.Entry();
+        entry.setStudentId(student.getId());
+        entry.setPresent(present);
+        return entry;
+    }
+}
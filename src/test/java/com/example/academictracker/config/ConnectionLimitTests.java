@@ -0,0 +1,55 @@
+package com.example.academictracker.config;
+
+import com.example.academictracker.exception.ServiceBusyException;
+import com.example.academictracker.service.AttendanceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Permits follow connections: a transaction holds one from begin to commit, and a caller that cannot
+// get one in time is rejected.
+@SpringBootTest(properties = {
+        "app.db.concurrency-limit.enabled=true",
+        "app.db.concurrency-limit.max-concurrent=2",
+        "app.db.concurrency-limit.acquire-timeout-ms=50"
+})
+class ConnectionLimitTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Test
+    void transactionsHoldAPermitUntilCommit() throws Exception {
+        ConnectionLimitingDataSource limited = assertInstanceOf(ConnectionLimitingDataSource.class, dataSource);
+        assertEquals(2, limited.availablePermits());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.getAttendanceRowsByDate(LocalDate.of(2025, 3, 3));
+            assertEquals(1, limited.availablePermits());
+        });
+        assertEquals(2, limited.availablePermits());
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(0, limited.availablePermits());
+            assertThrows(ServiceBusyException.class, dataSource::getConnection);
+            first.close();
+            // A second close must not hand the permit back twice
+            first.close();
+            assertEquals(1, limited.availablePermits());
+        }
+        assertEquals(2, limited.availablePermits());
+    }
+}
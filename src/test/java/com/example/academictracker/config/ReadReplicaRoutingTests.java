@@ -0,0 +1,86 @@
+package com.example.academictracker.config;
+
+import com.example.academictracker.dto.UserRowDTO;
+import com.example.academictracker.model.Role;
+import com.example.academictracker.model.User;
+import com.example.academictracker.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 databases stand in for primary and replica. Rows written only to the "replica"
+// show which database a call read from; replication itself is simulated by writing there directly.
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.replica.max-lag-seconds=5",
+        "app.datasource.replica.lag-check-ms=3600000"
+})
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds INT)");
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO users (name, email, password, role) VALUES ('Replica Only', 'replica@example.com', 'x', 'STUDENT')");
+    }
+
+    @Test
+    void readOnlyCallsUseReplicaAndWritesUsePrimary() {
+        setLag(0);
+        assertTrue(lagMonitor.isAvailable());
+
+        assertTrue(readsFromReplica());
+        assertTrue(userService.findByEmail("replica@example.com").isEmpty());
+
+        userService.registerUser(new User("Written", "written@example.com", "password", Role.STUDENT));
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'written@example.com'", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'written@example.com'", Integer.class));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        setLag(60);
+        assertFalse(lagMonitor.isAvailable());
+        assertFalse(readsFromReplica());
+
+        setLag(1);
+        assertTrue(lagMonitor.isAvailable());
+        assertTrue(readsFromReplica());
+    }
+
+    private boolean readsFromReplica() {
+        return userService.getAllUserRows().stream().map(UserRowDTO::email).anyMatch("replica@example.com"::equals);
+    }
+
+    private void setLag(int seconds) {
+        replica.update("UPDATE replica_lag SET lag_seconds = ?", seconds);
+        lagMonitor.check();
+    }
+}
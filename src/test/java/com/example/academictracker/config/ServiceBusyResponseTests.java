@@ -0,0 +1,44 @@
+package com.example.academictracker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// With every connection permit taken, read endpoints answer 503 with Retry-After rather than 400.
+@SpringBootTest(properties = {
+        "app.db.concurrency-limit.enabled=true",
+        "app.db.concurrency-limit.max-concurrent=2",
+        "app.db.concurrency-limit.acquire-timeout-ms=50"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "TEACHER")
+class ServiceBusyResponseTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void saturatedConnectionsGive503() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            for (String path : new String[]{"/api/marks/student/1", "/api/attendance/student/1", "/api/marks/course/1"}) {
+                mockMvc.perform(get(path))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string("Retry-After", "1"))
+                        .andExpect(content().string("Database is busy, please retry"));
+            }
+        }
+        mockMvc.perform(get("/api/marks/course/999999")).andExpect(status().isBadRequest());
+    }
+}
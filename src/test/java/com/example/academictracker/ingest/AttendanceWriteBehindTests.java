@@ -0,0 +1,325 @@
+package com.example.academictracker.ingest;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.BulkAttendanceResultDTO;
+import com.example.academictracker.exception.ServiceBusyException;
+import com.example.academictracker.model.*;
+import com.example.academictracker.repository.AttendanceRepository;
+import com.example.academictracker.service.AttendanceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Marks are acknowledged from the log, visible to reads before they are flushed, coalesced per
+// (student, course, date), ordered with bulk marks, bounded, and replayed after a restart.
+@SpringBootTest
+class AttendanceWriteBehindTests {
+
+    @DynamicPropertySource
+    static void writeBehind(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("attendance-log");
+        registry.add("app.attendance.write-behind.enabled", () -> "true");
+        registry.add("app.attendance.write-behind.dir", dir::toString);
+        // Flushed by hand below
+        registry.add("app.attendance.write-behind.flush-interval-ms", () -> "3600000");
+    }
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private AttendanceWriteBehindQueue queue;
+
+    @Autowired
+    private AttendanceWriteBehindFlusher flusher;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void pendingMarksAreReadBackThenFlushedCoalesced() {
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(testData.user(Role.TEACHER));
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+
+        Attendance acknowledged = attendanceService.markAttendance(new Attendance(student, course, monday, true, null));
+        attendanceService.markAttendance(new Attendance(student, course, monday, false, "Left early"));
+        attendanceService.markAttendance(new Attendance(student, course, monday.plusDays(1), true, null));
+
+        assertNull(acknowledged.getId());
+        assertTrue(attendanceRepository.findRowsByStudentId(student.getId()).isEmpty());
+        List<AttendanceRowDTO> pending = attendanceService.getAttendanceRowsByStudentId(student.getId());
+        assertEquals(2, pending.size());
+        assertNull(pending.get(0).id());
+        assertFalse(pending.get(0).present());
+        assertEquals("Left early", pending.get(0).remarks());
+        assertEquals(student.getName(), pending.get(0).studentName());
+
+        flusher.flush();
+
+        assertEquals(0, queue.size());
+        List<AttendanceRowDTO> stored = attendanceService.getAttendanceRowsByCourseId(course.getId());
+        assertEquals(2, stored.size());
+        assertNotNull(stored.get(0).id());
+        assertFalse(stored.get(0).present());
+        assertEquals("Left early", stored.get(0).remarks());
+        assertTrue(stored.get(1).present());
+
+        // A later mark overlays the stored row until it is flushed
+        attendanceService.markAttendance(new Attendance(student, course, monday.plusDays(1), false, "Sick"));
+        List<AttendanceRowDTO> overlaid = attendanceService.getAttendanceRowsByDate(monday.plusDays(1)).stream()
+                .filter(row -> row.studentId().equals(student.getId()))
+                .toList();
+        assertEquals(1, overlaid.size());
+        assertEquals(stored.get(1).id(), overlaid.get(0).id());
+        assertFalse(overlaid.get(0).present());
+        flusher.flush();
+    }
+
+    @Test
+    void logIsReplayedAfterRestartIgnoringTornTail(@TempDir Path dir) throws IOException {
+        LocalDate date = LocalDate.of(2025, 3, 3);
+        AttendanceWriteBehindQueue first = new AttendanceWriteBehindQueue(dir, true, 100, new SimpleMeterRegistry());
+        first.append(new PendingMark(1L, "Ann\tLee", 7L, "Maths", date, true, null));
+        first.append(new PendingMark(1L, "Ann\tLee", 7L, "Maths", date, false, "Line\nbreak \\ slash"));
+        first.append(new PendingMark(2L, "Bo", 7L, "Maths", date, true, "On time"));
+        first.destroy();
+        Files.writeString(dir.resolve("attendance.log"), "3\t7\t2025-03", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        AttendanceWriteBehindQueue second = new AttendanceWriteBehindQueue(dir, true, 100, new SimpleMeterRegistry());
+        List<PendingMark> replayed = second.unflushed(mark -> true);
+        assertEquals(List.of(
+                new PendingMark(1L, "Ann\tLee", 7L, "Maths", date, false, "Line\nbreak \\ slash"),
+                new PendingMark(2L, "Bo", 7L, "Maths", date, true, "On time")), replayed);
+
+        // Appends after the torn tail still replay cleanly, and a full flush empties the log
+        second.append(new PendingMark(3L, "Cy", 7L, "Maths", date, true, null));
+        second.destroy();
+        AttendanceWriteBehindQueue third = new AttendanceWriteBehindQueue(dir, true, 100, new SimpleMeterRegistry());
+        assertEquals(3, third.size());
+        third.completed(third.drain(10));
+        assertEquals(0, Files.size(dir.resolve("attendance.log")));
+        third.destroy();
+    }
+
+    @Test
+    void bulkMarksAreQueuedBehindEarlierSingleMarks() {
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(testData.user(Role.TEACHER));
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+
+        attendanceService.markAttendance(new Attendance(student, course, monday, true, null));
+        BulkAttendanceDTO.Entry absent = new BulkAttendanceDTO.Entry();
+        absent.setStudentId(student.getId());
+        absent.setPresent(false);
+        absent.setRemarks("Sick");
+        BulkAttendanceDTO.Entry unknown = new BulkAttendanceDTO.Entry();
+        unknown.setStudentId(-1L);
+        assertEquals(List.of(true, false), attendanceService.markBulkAttendance(course, monday, List.of(absent, unknown))
+                .stream().map(BulkAttendanceResultDTO::isSuccess).toList());
+
+        assertTrue(attendanceRepository.findRowsByStudentId(student.getId()).isEmpty());
+        flusher.flush();
+
+        List<AttendanceRowDTO> stored = attendanceRepository.findRowsByStudentId(student.getId());
+        assertEquals(1, stored.size());
+        assertFalse(stored.get(0).present());
+        assertEquals("Sick", stored.get(0).remarks());
+    }
+
+    @Test
+    void appendsBeyondMaxPendingAreRejected(@TempDir Path dir) throws IOException {
+        LocalDate date = LocalDate.of(2025, 3, 3);
+        AttendanceWriteBehindQueue queue = new AttendanceWriteBehindQueue(dir, true, 2, new SimpleMeterRegistry());
+        queue.append(new PendingMark(1L, "Ann", 7L, "Maths", date, true, null));
+        queue.append(new PendingMark(2L, "Bo", 7L, "Maths", date, true, null));
+
+        // Replacing a pending mark needs no room, a new one does; a batch is rejected as a whole
+        queue.append(new PendingMark(1L, "Ann", 7L, "Maths", date, false, null));
+        assertThrows(ServiceBusyException.class,
+                () -> queue.append(new PendingMark(3L, "Cy", 7L, "Maths", date, true, null)));
+        assertThrows(ServiceBusyException.class, () -> queue.append(List.of(
+                new PendingMark(2L, "Bo", 7L, "Maths", date, false, null),
+                new PendingMark(3L, "Cy", 7L, "Maths", date, true, null))));
+        queue.destroy();
+
+        AttendanceWriteBehindQueue replayed = new AttendanceWriteBehindQueue(dir, true, 2, new SimpleMeterRegistry());
+        assertEquals(List.of(
+                new PendingMark(1L, "Ann", 7L, "Maths", date, false, null),
+                new PendingMark(2L, "Bo", 7L, "Maths", date, true, null)), replayed.unflushed(mark -> true));
+
+        // Marks being flushed still count until they are written
+        List<PendingMark> inFlight = replayed.drain(10);
+        assertThrows(ServiceBusyException.class,
+                () -> replayed.append(new PendingMark(3L, "Cy", 7L, "Maths", date, true, null)));
+        replayed.completed(inFlight);
+        replayed.append(new PendingMark(3L, "Cy", 7L, "Maths", date, true, null));
+        assertEquals(1, replayed.size());
+        replayed.destroy();
+    }
+
+    @Test
+    void failedAppendDoesNotTakeTheNextMarkWithIt(@TempDir Path dir) throws IOException {
+        LocalDate date = LocalDate.of(2025, 3, 3);
+        FailingChannel[] channel = new FailingChannel[1];
+        AttendanceWriteBehindQueue queue = new AttendanceWriteBehindQueue(dir, true, 100, new SimpleMeterRegistry()) {
+            @Override
+            FileChannel open(Path file) throws IOException {
+                return channel[0] = new FailingChannel(super.open(file));
+            }
+        };
+        queue.append(new PendingMark(1L, "Ann", 7L, "Maths", date, true, null));
+
+        // Half a line reaches the disk and is rolled back
+        channel[0].failWrites = true;
+        assertThrows(UncheckedIOException.class, () -> queue.append(new PendingMark(2L, "Bo", 7L, "Maths", date, true, null)));
+        channel[0].failWrites = false;
+        queue.append(new PendingMark(3L, "Cy", 7L, "Maths", date, true, null));
+
+        // The rollback fails too: the fragment stays, and the next mark starts on a line of its own
+        channel[0].failWrites = true;
+        channel[0].failTruncate = true;
+        assertThrows(UncheckedIOException.class, () -> queue.append(new PendingMark(4L, "Di", 7L, "Maths", date, true, null)));
+        channel[0].failWrites = false;
+        channel[0].failTruncate = false;
+        queue.append(new PendingMark(5L, "Ed", 7L, "Maths", date, true, null));
+        queue.destroy();
+
+        AttendanceWriteBehindQueue replayed = new AttendanceWriteBehindQueue(dir, true, 100, new SimpleMeterRegistry());
+        assertEquals(List.of(1L, 3L, 5L), replayed.unflushed(mark -> true).stream().map(PendingMark::studentId).toList());
+        replayed.destroy();
+    }
+
+    // Writes half of the buffer and then fails, like a disk filling up mid-append
+    private static class FailingChannel extends FileChannel {
+
+        private final FileChannel target;
+        private volatile boolean failWrites;
+        private volatile boolean failTruncate;
+
+        FailingChannel(FileChannel target) {
+            this.target = target;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!failWrites) {
+                return target.write(src);
+            }
+            ByteBuffer half = src.slice().limit(src.remaining() / 2);
+            src.position(src.position() + target.write(half));
+            throw new IOException("No space left on device");
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("No space left on device");
+            }
+            target.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return target.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return target.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return target.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return target.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            target.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return target.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            target.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel destination) throws IOException {
+            return target.transferTo(position, count, destination);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return target.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return target.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return target.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return target.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return target.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return target.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            target.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.model.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// @ReadOnlyQuery entities stay read-only even inside a read-write transaction: no snapshot is kept
+// and changes to them are never flushed.
+@SpringBootTest
+class ReadOnlyQueryTests {
+
+    @Autowired
+    private MarksRepository marksRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void detailReadsLoadReadOnlyEntities() {
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(testData.user(Role.TEACHER));
+        marksRepository.save(new Marks(student, course, 70.0));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            List<Marks> marks = marksRepository.findWithDetailsByCourse(course);
+            assertEquals(1, marks.size());
+            assertTrue(session.isReadOnly(marks.get(0)));
+            assertTrue(session.isReadOnly(marks.get(0).getStudent()));
+            marks.get(0).setScore(10.0);
+        });
+
+        assertEquals(70.0, marksRepository.findByCourse(course).get(0).getScore());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.academictracker.repository;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.AttendanceStatsDTO;
+import com.example.academictracker.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The aggregate queries the stats endpoints rely on, run against the database rather than mocked:
+// STDDEV_POP, the ROW_NUMBER median for odd, even and empty courses, and GROUP BY attendance totals.
+@SpringBootTest
+class StatsQueryTests {
+
+    @Autowired
+    private MarksRepository marksRepository;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void scoreSummaryAndMedian() {
+        User teacher = testData.user(Role.TEACHER);
+        Course odd = testData.course(teacher);
+        Course even = testData.course(teacher);
+        Course empty = testData.course(teacher);
+        for (double score : new double[] {60, 90, 70}) {
+            marksRepository.save(new Marks(testData.user(Role.STUDENT), odd, score));
+        }
+        for (double score : new double[] {40, 100, 50, 80}) {
+            marksRepository.save(new Marks(testData.user(Role.STUDENT), even, score));
+        }
+
+        MarksRepository.ScoreSummary summary = marksRepository.summarizeScoresByCourseId(odd.getId());
+        assertEquals(3, summary.getCount());
+        assertEquals(60.0, summary.getMin());
+        assertEquals(90.0, summary.getMax());
+        double mean = 220.0 / 3;
+        assertEquals(mean, summary.getMean(), 1e-9);
+        double variance = (Math.pow(60 - mean, 2) + Math.pow(90 - mean, 2) + Math.pow(70 - mean, 2)) / 3;
+        assertEquals(Math.sqrt(variance), summary.getStddev(), 1e-9);
+        assertEquals(70.0, marksRepository.findMedianScoreByCourseId(odd.getId()));
+
+        assertEquals(4, marksRepository.summarizeScoresByCourseId(even.getId()).getCount());
+        assertEquals(65.0, marksRepository.findMedianScoreByCourseId(even.getId()));
+
+        MarksRepository.ScoreSummary none = marksRepository.summarizeScoresByCourseId(empty.getId());
+        assertEquals(0, none.getCount());
+        assertNull(none.getMin());
+        assertNull(none.getMean());
+        assertNull(none.getStddev());
+        assertNull(marksRepository.findMedianScoreByCourseId(empty.getId()));
+    }
+
+    @Test
+    void attendanceStatsCountPresentAndTotal() {
+        User teacher = testData.user(Role.TEACHER);
+        Course first = testData.course(teacher);
+        Course second = testData.course(teacher);
+        User ann = testData.user(Role.STUDENT);
+        User bo = testData.user(Role.STUDENT);
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        attendanceRepository.save(new Attendance(ann, first, monday, true, null));
+        attendanceRepository.save(new Attendance(ann, first, monday.plusDays(1), true, null));
+        attendanceRepository.save(new Attendance(ann, first, monday.plusDays(2), false, "Sick"));
+        attendanceRepository.save(new Attendance(ann, second, monday, false, null));
+        attendanceRepository.save(new Attendance(bo, first, monday, true, null));
+
+        List<AttendanceStatsDTO> byStudent = attendanceRepository.findStatsByStudentId(ann.getId());
+        assertEquals(List.of(first.getId(), second.getId()), byStudent.stream().map(AttendanceStatsDTO::courseId).toList());
+        assertEquals(2, byStudent.get(0).presentCount());
+        assertEquals(3, byStudent.get(0).totalCount());
+        assertEquals(200.0 / 3, byStudent.get(0).percentage(), 1e-9);
+        assertEquals(first.getName(), byStudent.get(0).courseName());
+        assertEquals(0, byStudent.get(1).presentCount());
+        assertEquals(1, byStudent.get(1).totalCount());
+        assertEquals(0.0, byStudent.get(1).percentage());
+
+        List<AttendanceStatsDTO> byCourse = attendanceRepository.findStatsByCourseId(first.getId());
+        assertEquals(List.of(ann.getId(), bo.getId()), byCourse.stream().map(AttendanceStatsDTO::studentId).toList());
+        assertEquals(2, byCourse.get(0).presentCount());
+        assertEquals(3, byCourse.get(0).totalCount());
+        assertEquals(1, byCourse.get(1).presentCount());
+        assertEquals(1, byCourse.get(1).totalCount());
+        assertEquals(100.0, byCourse.get(1).percentage());
+        assertEquals(bo.getName(), byCourse.get(1).studentName());
+
+        assertTrue(attendanceRepository.findStatsByCourseId(testData.course(teacher).getId()).isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ETags move only once a write has committed, and only for the student and scope it touched.
+@SpringBootTest
+class ChangeTrackerTests {
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void attendanceWriteChangesOnlyThatStudentsTagAfterCommit() {
+        User student = testData.user(Role.STUDENT);
+        User other = testData.user(Role.STUDENT);
+        Course course = testData.course(testData.user(Role.TEACHER));
+        String before = changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, student.getId());
+        String otherBefore = changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, other.getId());
+        String marksBefore = changeTracker.etag(ChangeTracker.Scope.STUDENT_MARKS, student.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.markAttendance(new Attendance(student, course, LocalDate.of(2025, 3, 3), true, null));
+            assertEquals(before, changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, student.getId()));
+        });
+
+        assertNotEquals(before, changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, student.getId()));
+        assertEquals(otherBefore, changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, other.getId()));
+        assertEquals(marksBefore, changeTracker.etag(ChangeTracker.Scope.STUDENT_MARKS, student.getId()));
+    }
+
+    @Test
+    void rolledBackWriteKeepsTag() {
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(testData.user(Role.TEACHER));
+        String before = changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, student.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            attendanceService.markAttendance(new Attendance(student, course, LocalDate.of(2025, 3, 3), true, null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, changeTracker.etag(ChangeTracker.Scope.STUDENT_ATTENDANCE, student.getId()));
+    }
+
+    @Test
+    void courseChangesMoveCatalogAndStudentTags() {
+        User student = testData.user(Role.STUDENT);
+        String catalog = changeTracker.etag(ChangeTracker.Scope.COURSE_CATALOG, null);
+        String marks = changeTracker.etag(ChangeTracker.Scope.STUDENT_MARKS, student.getId());
+
+        courseService.addCourse(new Course("Tracked", "A", testData.user(Role.TEACHER)));
+
+        assertNotEquals(catalog, changeTracker.etag(ChangeTracker.Scope.COURSE_CATALOG, null));
+        assertNotEquals(marks, changeTracker.etag(ChangeTracker.Scope.STUDENT_MARKS, student.getId()));
+    }
+}
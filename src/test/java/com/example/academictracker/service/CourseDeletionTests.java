@@ -0,0 +1,113 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.DeletionReportDTO;
+import com.example.academictracker.model.*;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Deletes report the rows they removed and evict cached courses only after commit; the async mode
+// hides the course first and purges it in chunks.
+@SpringBootTest(properties = {"app.course.purge-batch-size=2", "app.course.purge-sweep-ms=3600000"})
+class CourseDeletionTests {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CoursePurgeService coursePurgeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private MarksService marksService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void deleteReportsRemovedRows() {
+        User student = testData.user(Role.STUDENT);
+        Course course = courseWithActivity(student, 3);
+
+        DeletionReportDTO report = courseService.deleteCourse(course.getId());
+        assertEquals(new DeletionReportDTO("course", course.getId(), DeletionReportDTO.Status.DELETED, 3, 3, 1), report);
+        assertFalse(courseRepository.existsById(course.getId()));
+
+        DeletionReportDTO userReport = userService.deleteUser(student.getId());
+        assertEquals(0, userReport.attendances());
+        assertFalse(userRepository.existsById(student.getId()));
+    }
+
+    @Test
+    void cachedCourseIsEvictedOnlyAfterTheDeleteCommits() {
+        Course course = testData.course(testData.user(Role.TEACHER));
+        courseService.getCourseById(course.getId());
+        courseService.getAllCourseRows();
+        Cache courses = cacheManager.getCache(CourseService.COURSES_CACHE);
+        Cache catalog = cacheManager.getCache(CourseService.COURSE_CATALOG_CACHE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            courseService.deleteCourse(course.getId());
+            // Still uncommitted: evicting now would let a concurrent read re-cache the course
+            assertNotNull(courses.get(course.getId()));
+            assertNotNull(catalog.get("all"));
+        });
+
+        assertNull(courses.get(course.getId()));
+        assertNull(catalog.get("all"));
+        assertThrows(IllegalArgumentException.class, () -> courseService.getCourseById(course.getId()));
+    }
+
+    @Test
+    void softDeletedCourseIsHiddenAndPurgedInChunks() {
+        User student = testData.user(Role.STUDENT);
+        Course course = courseWithActivity(student, 5);
+
+        assertTrue(coursePurgeService.markDeleted(course.getId()));
+        assertFalse(courseRepository.existsById(course.getId()));
+        assertThrows(IllegalArgumentException.class, () -> courseService.getCourseById(course.getId()));
+        assertFalse(coursePurgeService.markDeleted(course.getId()));
+
+        DeletionReportDTO report = coursePurgeService.purge(course.getId());
+        assertEquals(5, report.attendances());
+        assertEquals(5, report.marks());
+        assertEquals(1, report.summaries());
+        assertFalse(courseRepository.findDeletedIds().contains(course.getId()));
+    }
+
+    private Course courseWithActivity(User student, int days) {
+        Course course = testData.course(testData.user(Role.TEACHER));
+        for (int i = 0; i < days; i++) {
+            attendanceService.markAttendance(new Attendance(student, course, LocalDate.of(2025, 3, 3).plusDays(i), true, null));
+            marksService.addMarks(new Marks(student, course, 50.0 + i));
+        }
+        return course;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.model.*;
+import com.example.academictracker.repository.AttendanceRepository;
+import com.example.academictracker.repository.MarksRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Reading and serializing marks/attendance must cost the same number of
+// statements whether the course has one row or many (no lazy-loading N+1).
+@SpringBootTest
+class FetchJoinStatementCountTests {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private MarksService marksService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private MarksRepository marksRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void attendanceByCourseUsesFixedStatementCount() {
+        Course small = courseWithAttendance(1);
+        Course large = courseWithAttendance(25);
+
+        long smallCount = statementsFor(() -> attendanceService.getAttendanceByCourseId(small.getId()));
+        long largeCount = statementsFor(() -> attendanceService.getAttendanceByCourseId(large.getId()));
+
+        assertEquals(2, smallCount);
+        assertEquals(smallCount, largeCount);
+    }
+
+    @Test
+    void marksByCourseAndStudentUseFixedStatementCount() {
+        Course small = courseWithMarks(1);
+        Course large = courseWithMarks(25);
+
+        long smallCount = statementsFor(() -> marksService.getMarksByCourseId(small.getId()));
+        long largeCount = statementsFor(() -> marksService.getMarksByCourseId(large.getId()));
+        assertEquals(2, smallCount);
+        assertEquals(smallCount, largeCount);
+
+        User student = studentWithMarksInCourses(25);
+        assertEquals(2, statementsFor(() -> marksService.getMarksByStudentId(student.getId())));
+    }
+
+    // Runs the read and its JSON serialization in one transaction, as open-in-view does for a request
+    private long statementsFor(Supplier<Object> read) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                objectMapper.writeValueAsString(read.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Course courseWithAttendance(int students) {
+        Course course = newCourse();
+        for (int i = 0; i < students; i++) {
+            attendanceRepository.save(new Attendance(testData.user(Role.STUDENT), course, LocalDate.of(2025, 10, 8), true, null));
+        }
+        return course;
+    }
+
+    private Course courseWithMarks(int students) {
+        Course course = newCourse();
+        for (int i = 0; i < students; i++) {
+            marksRepository.save(new Marks(testData.user(Role.STUDENT), course, 75.0));
+        }
+        return course;
+    }
+
+    private User studentWithMarksInCourses(int courses) {
+        User student = testData.user(Role.STUDENT);
+        for (int i = 0; i < courses; i++) {
+            marksRepository.save(new Marks(student, newCourse(), 60.0));
+        }
+        return student;
+    }
+
+    private Course newCourse() {
+        return testData.course(testData.user(Role.TEACHER));
+    }
+}
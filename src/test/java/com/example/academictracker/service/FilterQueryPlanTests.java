@@ -0,0 +1,106 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.AttendanceFilterDTO;
+import com.example.academictracker.dto.AttendanceRowDTO;
+import com.example.academictracker.dto.CursorPageDTO;
+import com.example.academictracker.dto.MarksFilterDTO;
+import com.example.academictracker.dto.MarksRowDTO;
+import com.example.academictracker.model.*;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each filter request is one SQL statement, and H2's plan for it uses the composite index that
+// matches the leading filters.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.academictracker.service.FilterQueryPlanTests$LastStatement")
+class FilterQueryPlanTests {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private MarksService marksService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void courseDateRangeAbsenteesUseCourseDateIndex() {
+        User teacher = testData.user(Role.TEACHER);
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(teacher, "B");
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        for (int i = 0; i < 10; i++) {
+            attendanceService.markAttendance(new Attendance(student, course, monday.plusDays(i), i % 3 != 0, null));
+        }
+
+        AttendanceFilterDTO filter = new AttendanceFilterDTO(null, course.getId(), monday.plusDays(1),
+                monday.plusDays(8), false, "B", teacher.getId());
+        LastStatement.sql.set(null);
+        CursorPageDTO<AttendanceRowDTO> page = attendanceService.filterAttendance(filter, null, 1);
+        String sql = LastStatement.sql.get();
+
+        assertEquals(List.of(monday.plusDays(3)), page.items().stream().map(AttendanceRowDTO::date).toList());
+        assertNotNull(page.nextCursor());
+        assertEquals(List.of(monday.plusDays(6)), attendanceService.filterAttendance(filter, page.nextCursor(), 1)
+                .items().stream().map(AttendanceRowDTO::date).toList());
+        assertTrue(explain(sql).contains("idx_attendance_course_date"), sql);
+    }
+
+    @Test
+    void courseScoreRangeUsesCourseScoreIndex() {
+        User teacher = testData.user(Role.TEACHER);
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(teacher, "C");
+        for (double score : new double[] {35, 55, 75, 95}) {
+            marksService.addMarks(new Marks(student, course, score));
+        }
+
+        LastStatement.sql.set(null);
+        CursorPageDTO<MarksRowDTO> page = marksService.filterMarks(
+                new MarksFilterDTO(null, course.getId(), null, null, 50.0, 80.0), null, 10);
+        String sql = LastStatement.sql.get();
+
+        assertEquals(List.of(55.0, 75.0), page.items().stream().map(MarksRowDTO::score).toList());
+        assertTrue(explain(sql).contains("idx_marks_course_score"), sql);
+    }
+
+    @Test
+    void invertedRangeIsRejected() {
+        AttendanceFilterDTO filter = new AttendanceFilterDTO(null, null, LocalDate.of(2025, 3, 9),
+                LocalDate.of(2025, 3, 1), null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> attendanceService.filterAttendance(filter, null, 10));
+    }
+
+    // Parameters are bound as NULL: H2 picks the index from the shape of the conditions
+    private String explain(String sql) {
+        Object[] args = new Object[(int) sql.chars().filter(ch -> ch == '?').count()];
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args).toLowerCase(Locale.ROOT);
+    }
+
+    public static class LastStatement implements StatementInspector {
+
+        static final ThreadLocal<String> sql = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String statement) {
+            if (sql.get() == null && statement.startsWith("select")) {
+                sql.set(statement);
+            }
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.dto.ImportReportDTO;
+import com.example.academictracker.dto.StudentSummaryDTO;
+import com.example.academictracker.model.Course;
+import com.example.academictracker.model.Role;
+import com.example.academictracker.model.User;
+import com.example.academictracker.repository.CourseRepository;
+import com.example.academictracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Invalid rows are reported by line and skipped; valid rows land in the tables, the summaries and
+// the cached course catalog.
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportServiceTests {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void importsUsersAndReportsRejectedRows() throws IOException {
+        ImportReportDTO report = importService.importUsers(csv("""
+                name,email,password,role
+                Ada,import.ada@example.com,secret123,
+                Ben,import.ben@example.com,secret123,TEACHER
+                Cy,not-an-email,secret123,STUDENT
+                Dup,IMPORT.ADA@example.com,secret123,STUDENT
+                Eve,import.eve@example.com,secret123,JANITOR
+                """));
+
+        assertEquals(5, report.rows());
+        assertEquals(2, report.imported());
+        assertEquals(3, report.failed());
+        assertEquals(List.of(4L, 5L, 6L), report.errors().stream().map(ImportReportDTO.RowError::line).toList());
+
+        User ada = userRepository.findByEmail("import.ada@example.com").orElseThrow();
+        assertEquals(Role.STUDENT, ada.getRole());
+        assertTrue(passwordEncoder.matches("secret123", ada.getPassword()));
+        assertEquals(Role.TEACHER, userRepository.findByEmail("import.ben@example.com").orElseThrow().getRole());
+    }
+
+    @Test
+    void importedMarksUpdateSummaries() throws IOException {
+        User teacher = userRepository.save(new User("T", "import.teacher@example.com", "password", Role.TEACHER));
+        User student = userRepository.save(new User("S", "import.student@example.com", "password", Role.STUDENT));
+        Course course = courseRepository.save(new Course("Imported", "A", teacher));
+
+        ImportReportDTO report = importService.importMarks(csv("studentEmail,courseId,score\n"
+                + "import.student@example.com," + course.getId() + ",80\n"
+                + "import.student@example.com," + course.getId() + ",60\n"
+                + "import.teacher@example.com," + course.getId() + ",70\n"
+                + "import.student@example.com," + course.getId() + ",101\n"));
+
+        assertEquals(2, report.imported());
+        assertEquals(2, report.failed());
+        StudentSummaryDTO summary = studentSummaryService.getSummary(student.getId(), course.getId());
+        assertEquals(2, summary.marksCount());
+        assertEquals(70.0, summary.marksAverage(), 0.001);
+    }
+
+    @Test
+    @WithMockUser
+    void importedCoursesAppearInTheCachedCatalog() throws Exception {
+        MvcResult before = mockMvc.perform(get("/api/courses/all")).andExpect(status().isOk()).andReturn();
+        String etag = before.getResponse().getHeader(HttpHeaders.ETAG);
+        assertFalse(before.getResponse().getContentAsString().contains("Imported catalog"));
+
+        assertEquals(1, importService.importCourses(csv("name,section\nImported catalog,B\n")).imported());
+
+        MvcResult after = mockMvc.perform(get("/api/courses/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn();
+        assertNotEquals(etag, after.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(after.getResponse().getContentAsString().contains("Imported catalog"));
+    }
+
+    @Test
+    void missingColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importCourses(csv("name\nMaths\n")));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
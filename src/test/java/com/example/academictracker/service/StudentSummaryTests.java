@@ -0,0 +1,84 @@
+package com.example.academictracker.service;
+
+import com.example.academictracker.TestData;
+import com.example.academictracker.dto.BulkAttendanceDTO;
+import com.example.academictracker.dto.StudentSummaryDTO;
+import com.example.academictracker.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The incrementally maintained summary must match a rebuild from attendances and marks,
+// including re-marks of the same day that flip present/absent.
+@SpringBootTest
+class StudentSummaryTests {
+
+    @Autowired
+    private AttendanceService attendanceService;
+
+    @Autowired
+    private MarksService marksService;
+
+    @Autowired
+    private StudentSummaryService studentSummaryService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void incrementalSummaryMatchesRebuild() {
+        User teacher = testData.user(Role.TEACHER);
+        User student = testData.user(Role.STUDENT);
+        User other = testData.user(Role.STUDENT);
+        Course course = testData.course(teacher);
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+
+        attendanceService.markAttendance(new Attendance(student, course, monday, true, null));
+        attendanceService.markAttendance(new Attendance(student, course, monday, false, "Left early"));
+        attendanceService.markAttendance(new Attendance(student, course, monday.plusDays(1), true, null));
+        attendanceService.markBulkAttendance(course, monday.plusDays(1),
+                List.of(entry(student, false), entry(other, true)));
+        attendanceService.markBulkAttendance(course, monday.plusDays(2),
+                List.of(entry(student, true), entry(other, true)));
+        marksService.addMarks(new Marks(student, course, 72.0));
+        marksService.addMarks(new Marks(student, course, 91.0));
+        marksService.addMarks(new Marks(student, course, 64.0));
+
+        StudentSummaryDTO incremental = studentSummaryService.getSummary(student.getId(), course.getId());
+        assertEquals(1, incremental.attendancePresent());
+        assertEquals(3, incremental.attendanceTotal());
+        assertEquals(3, incremental.marksCount());
+        assertEquals(75.67, incremental.marksAverage(), 0.01);
+        assertEquals(64.0, incremental.marksMin());
+        assertEquals(91.0, incremental.marksMax());
+
+        studentSummaryService.rebuild();
+        assertEquals(incremental, studentSummaryService.getSummary(student.getId(), course.getId()));
+        assertEquals(2, studentSummaryService.getSummary(other.getId(), course.getId()).attendancePresent());
+    }
+
+    @Test
+    void studentWithoutActivityHasEmptySummary() {
+        User teacher = testData.user(Role.TEACHER);
+        User student = testData.user(Role.STUDENT);
+        Course course = testData.course(teacher);
+
+        StudentSummaryDTO summary = studentSummaryService.getSummary(student.getId(), course.getId());
+        assertEquals(0, summary.attendanceTotal());
+        assertEquals(0, summary.marksCount());
+        assertNull(summary.marksAverage());
+    }
+
+    private static BulkAttendanceDTO.Entry entry(User student, boolean present) {
+        BulkAttendanceDTO.Entry entry = new BulkAttendanceDTO.Entry();
+        entry.setStudentId(student.getId());
+        entry.setPresent(present);
+        return entry;
+    }
+}